@@ -17,6 +17,9 @@ import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.eclipse.ui.statushandlers.StatusManager;
 import org.osgi.framework.BundleContext;
 
+import com.eclipsesource.jshint.JSHintLibrary;
+import com.eclipsesource.jshint.ui.builder.WarmUpJob;
+
 public class Activator extends AbstractUIPlugin {
 
 	/**
@@ -24,8 +27,18 @@ public class Activator extends AbstractUIPlugin {
 	 */
 	public static final String PLUGIN_ID = "com.eclipsesource.jshint.ui"; //$NON-NLS-1$
 
+	/*
+	 * the folder, within the state location, of the compiled libraries cache
+	 */
+	private static final String CACHE_FOLDER = "cache"; //$NON-NLS-1$
+
 	private static Activator instance;
 
+	/*
+	 * the job warming up the JSHint library
+	 */
+	private WarmUpJob warmUpJob;
+
 	public static IStatus createError(final String message,
 			final Throwable exception) {
 		return new Status(IStatus.ERROR, PLUGIN_ID, message, exception);
@@ -62,10 +75,19 @@ public class Activator extends AbstractUIPlugin {
 	public void start(final BundleContext context) throws Exception {
 		super.start(context);
 		instance = this;
+		// keep the classes compiled from custom JSHint libraries
+		JSHintLibrary.setCacheDirectory(
+				getStateLocation().append(CACHE_FOLDER).toFile());
+		// load the library before the first build needs it
+		warmUpJob = new WarmUpJob();
+		warmUpJob.schedule();
 	}
 
 	@Override
 	public void stop(final BundleContext context) throws Exception {
+		warmUpJob.cancel();
+		warmUpJob = null;
+		JSHintLibrary.setCacheDirectory(null);
 		instance = null;
 		super.stop(context);
 	}
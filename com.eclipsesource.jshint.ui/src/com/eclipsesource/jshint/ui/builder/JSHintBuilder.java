@@ -49,12 +49,24 @@ public class JSHintBuilder extends IncrementalProjectBuilder {
 	private void fullBuild(final IProgressMonitor monitor)
 			throws CoreException {
 		final IProject project = getProject();
-		project.accept(new JSHintBuilderVisitor(project, monitor));
+		final JSHintBuilderVisitor visitor = new JSHintBuilderVisitor(project,
+				monitor);
+		try {
+			project.accept(visitor);
+		} finally {
+			visitor.release();
+		}
 	}
 
 	private void incrementalBuild(final IResourceDelta delta,
 			final IProgressMonitor monitor) throws CoreException {
 		final IProject project = getProject();
-		delta.accept(new JSHintBuilderVisitor(project, monitor));
+		final JSHintBuilderVisitor visitor = new JSHintBuilderVisitor(project,
+				monitor);
+		try {
+			delta.accept(visitor);
+		} finally {
+			visitor.release();
+		}
 	}
 }
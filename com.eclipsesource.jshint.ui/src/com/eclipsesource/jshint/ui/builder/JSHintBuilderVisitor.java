@@ -10,9 +10,6 @@
  ******************************************************************************/
 package com.eclipsesource.jshint.ui.builder;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -29,6 +26,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.osgi.service.prefs.Preferences;
 
 import com.eclipsesource.jshint.JSHint;
+import com.eclipsesource.jshint.JSHintBudgetException;
 import com.eclipsesource.jshint.Text;
 import com.eclipsesource.jshint.ui.Activator;
 import com.eclipsesource.jshint.ui.preferences.EnablementPreferences;
@@ -42,17 +40,6 @@ class JSHintBuilderVisitor implements IResourceVisitor, IResourceDeltaVisitor {
 		new MarkerAdapter(resource).removeMarkers();
 	}
 
-	private static InputStream getCustomLib() throws FileNotFoundException {
-		final JSHintPreferences globalPrefs = new JSHintPreferences();
-		if (globalPrefs.isUseCustomLib()) {
-			final File file = new File(globalPrefs.getCustomLibPath());
-			if (file.exists()) {
-				return new FileInputStream(file);
-			}
-		}
-		return null;
-	}
-
 	private static Text readContent(final IFile file) throws CoreException {
 		try (InputStream stream = file.getContents()) {
 			final String charset = file.getCharset();
@@ -87,6 +74,17 @@ class JSHintBuilderVisitor implements IResourceVisitor, IResourceDeltaVisitor {
 		this.monitor = monitor;
 	}
 
+	/**
+	 * Releases the state kept by JSHint from the last checked file. The
+	 * library is shared, so this state would otherwise stay reachable until
+	 * the next build.
+	 */
+	public void release() {
+		if (checker != null) {
+			checker.reset();
+		}
+	}
+
 	@Override
 	public boolean visit(final IResource resource) throws CoreException {
 		boolean descend = false;
@@ -117,8 +115,10 @@ class JSHintBuilderVisitor implements IResourceVisitor, IResourceDeltaVisitor {
 		final MarkerHandler handler = new MarkerHandler(adapter, code);
 
 		try {
-			checker.check(code, handler);
+			checker.collect(code, handler);
 
+		} catch (final JSHintBudgetException e) {
+			adapter.createWarning(-1, -1, -1, e.getMessage());
 		} catch (final RuntimeException e) {
 			final String path = file.getFullPath().toPortableString();
 			final String msg = String.format("Failed checking file '%s'.",
@@ -129,18 +129,20 @@ class JSHintBuilderVisitor implements IResourceVisitor, IResourceDeltaVisitor {
 
 	private JSHint createJSHint(final IProject project) throws CoreException {
 		final JSHint jshint = new JSHint();
-		try (final InputStream stream = getCustomLib()) {
-			if (stream != null) {
-				jshint.load(stream);
-			} else {
-				jshint.load();
-			}
+		try {
+			jshint.load(LibraryUtils.getLibrary(project));
 			final ConfigurationLoader loader = new ConfigurationLoader(project);
 			jshint.configure(loader.getConfiguration());
+			final int timeout = new JSHintPreferences().getCheckTimeout();
+			jshint.setTimeout(timeout * 1000L);
 
 		} catch (final IOException e) {
 			final String msg = "Failed to intialize JSHint.";
 			throw Activator.createException(msg, e);
+		} catch (final IllegalArgumentException e) {
+			// an invalid library or an invalid problem codes option
+			final String msg = "Failed to intialize JSHint: " + e.getMessage();
+			throw Activator.createException(msg, e);
 		}
 		return jshint;
 	}
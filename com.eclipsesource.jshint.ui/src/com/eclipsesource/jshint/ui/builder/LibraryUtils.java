@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+
+import com.eclipsesource.jshint.JSHintLibrary;
+import com.eclipsesource.jshint.JSHintLibraryRegistry;
+import com.eclipsesource.jshint.ui.preferences.JSHintPreferences;
+import com.eclipsesource.jshint.ui.preferences.LibraryPreferences;
+import com.eclipsesource.jshint.ui.preferences.PreferencesFactoryUtils;
+
+/**
+ * Resolves the JSHint libraries selected in the preferences through the
+ * shared {@link JSHintLibraryRegistry}, so the projects using the same
+ * library share it and libraries are not reloaded on every build.
+ */
+public final class LibraryUtils {
+
+	/**
+	 * The identifier of the custom library of the workspace preferences.
+	 */
+	public static final String CUSTOM_ID = "custom"; //$NON-NLS-1$
+
+	/**
+	 * Gets the library selected for the given project. If the project does
+	 * not select a library or if the selected library is no longer
+	 * registered, the workspace library is returned.
+	 *
+	 * @param project
+	 *            the project
+	 * @return the library
+	 * @throws IOException
+	 *             if the library cannot be loaded.
+	 */
+	public static JSHintLibrary getLibrary(final IProject project)
+			throws IOException {
+		final JSHintLibraryRegistry registry = updateRegistry();
+		final String id = new LibraryPreferences(
+				PreferencesFactoryUtils.getProjectPreferences(project))
+						.getLibraryId();
+		if (!id.isEmpty() && registry.isRegistered(id)) {
+			return registry.getLibrary(id);
+		}
+		return registry.getLibrary(getWorkspaceLibraryId());
+	}
+
+	/**
+	 * Gets the identifiers of the libraries a project can select.
+	 *
+	 * @return the library identifiers
+	 */
+	public static Set<String> getLibraryIds() {
+		return updateRegistry().getIds();
+	}
+
+	/**
+	 * Gets the library selected in the workspace preferences.
+	 *
+	 * @return the library
+	 * @throws IOException
+	 *             if the library cannot be loaded.
+	 */
+	public static JSHintLibrary getWorkspaceLibrary() throws IOException {
+		return updateRegistry().getLibrary(getWorkspaceLibraryId());
+	}
+
+	private static String getWorkspaceLibraryId() {
+		final JSHintPreferences preferences = new JSHintPreferences();
+		if (preferences.isUseCustomLib()
+				&& new File(preferences.getCustomLibPath()).exists()) {
+			return CUSTOM_ID;
+		}
+		return JSHintLibraryRegistry.DEFAULT_ID;
+	}
+
+	/**
+	 * Registers the libraries of the workspace preferences. The libraries
+	 * already registered with the same file are kept.
+	 */
+	private static synchronized JSHintLibraryRegistry updateRegistry() {
+		final JSHintLibraryRegistry registry = JSHintLibraryRegistry
+				.getDefault();
+		final JSHintPreferences preferences = new JSHintPreferences();
+		final Map<String, String> libraries = preferences.getLibraries();
+		for (final String id : registry.getIds()) {
+			if (!JSHintLibraryRegistry.DEFAULT_ID.equals(id)
+					&& !CUSTOM_ID.equals(id) && !libraries.containsKey(id)) {
+				registry.unregister(id);
+			}
+		}
+		for (final Map.Entry<String, String> entry : libraries.entrySet()) {
+			final String id = entry.getKey();
+			// the reserved identifiers are rejected by the preference page
+			if (!JSHintLibraryRegistry.DEFAULT_ID.equals(id)
+					&& !CUSTOM_ID.equals(id)) {
+				registry.register(id, new File(entry.getValue()));
+			}
+		}
+		if (preferences.isUseCustomLib()) {
+			registry.register(CUSTOM_ID,
+					new File(preferences.getCustomLibPath()));
+		} else {
+			registry.unregister(CUSTOM_ID);
+		}
+		return registry;
+	}
+
+	/*
+	 * prevent instance creation
+	 */
+	private LibraryUtils() {
+		throw new AssertionError("No LibraryUtils instances is allowed"); //$NON-NLS-1$
+	}
+}
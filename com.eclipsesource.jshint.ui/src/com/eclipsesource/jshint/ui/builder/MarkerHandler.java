@@ -12,17 +12,24 @@ package com.eclipsesource.jshint.ui.builder;
 
 import org.eclipse.core.runtime.CoreException;
 
-import com.eclipsesource.jshint.IProblem;
-import com.eclipsesource.jshint.ProblemHandler;
+import com.eclipsesource.jshint.ProblemCodes;
+import com.eclipsesource.jshint.ProblemSink;
 import com.eclipsesource.jshint.Text;
 import com.eclipsesource.jshint.ui.Activator;
 import com.eclipsesource.jshint.ui.preferences.JSHintPreferences;
 
-final class MarkerHandler implements ProblemHandler {
+final class MarkerHandler implements ProblemSink {
+
+	/*
+	 * the maximum number of markers per file, JSHint adds one more to tell
+	 * that it stopped
+	 */
+	private static final int MAX_MARKERS = 1000;
 
 	private final MarkerAdapter adapter;
 	private final Text code;
 	private final boolean enableError;
+	private int markerCount;
 
 	MarkerHandler(final MarkerAdapter adapter, final Text code) {
 		this.adapter = adapter;
@@ -31,22 +38,33 @@ final class MarkerHandler implements ProblemHandler {
 	}
 
 	@Override
-	public void handleProblem(final IProblem problem) {
-		final int line = problem.getLine();
-		final int ch = problem.getCharacter();
+	public void accept(final int line, final int ch, final int codeId,
+			final String reason) {
+		final boolean isError = ProblemCodes.isError(codeId);
 		if (isValidLine(line)) {
 			int offset = -1;
 			if (isValidCharacter(line - 1, ch)) {
 				offset = code.getLineOffset(line - 1) + ch;
 			}
-			createMarker(line, offset, problem.getMessage(), problem.isError());
+			createMarker(line, offset, reason, isError);
 		} else {
-			createMarker(-1, -1, problem.getMessage(), problem.isError());
+			createMarker(-1, -1, reason, isError);
 		}
 	}
 
+	@Override
+	public int getMaxProblems() {
+		return MAX_MARKERS;
+	}
+
+	@Override
+	public boolean isDone() {
+		return markerCount > MAX_MARKERS;
+	}
+
 	private void createMarker(final int line, final int character,
 			final String message, final boolean isError) {
+		markerCount++;
 		try {
 			if (enableError && isError) {
 				adapter.createError(line, character, character, message);
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.builder;
+
+import java.io.IOException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import com.eclipsesource.jshint.JSHint;
+import com.eclipsesource.jshint.JSHintLibrary;
+
+/**
+ * Background job loading the JSHint library selected in the preferences and
+ * warming it up, so the first build does not stall on it. The warm-up runs on
+ * a separate instance of the library, so it never holds the lock of the
+ * library used by the builder, and stops when the job is canceled.
+ */
+public final class WarmUpJob extends Job {
+
+	public WarmUpJob() {
+		super("JSHint warm-up");
+		setSystem(true);
+		setPriority(DECORATE);
+	}
+
+	@Override
+	protected IStatus run(final IProgressMonitor monitor) {
+		try {
+			final JSHintLibrary library = LibraryUtils.getWorkspaceLibrary();
+			if (!monitor.isCanceled()) {
+				JSHint.warmUp(library.newInstance(), monitor::isCanceled);
+			}
+		} catch (final IOException | RuntimeException e) {
+			// ignore, the builder reports the library problems
+		}
+		return Status.OK_STATUS;
+	}
+}
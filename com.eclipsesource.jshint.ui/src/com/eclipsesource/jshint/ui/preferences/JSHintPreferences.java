@@ -10,6 +10,10 @@
  ******************************************************************************/
 package com.eclipsesource.jshint.ui.preferences;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -21,6 +25,8 @@ import org.osgi.service.prefs.BackingStoreException;
 import org.osgi.service.prefs.Preferences;
 
 import com.eclipsesource.jshint.ui.Activator;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonObject.Member;
 
 /**
  * Instances of this class provide a copy of the global JSHint preferences. The
@@ -38,9 +44,39 @@ public class JSHintPreferences {
 	private static final String KEY_USE_CUSTOM_LIB = "useCustomJshint";
 	private static final String KEY_CUSTOM_LIB_PATH = "customJshintPath";
 	private static final String KEY_ENABLE_ERROR_MARKERS = "enableErrorMarkers";
+	private static final String KEY_CHECK_TIMEOUT = "checkTimeout";
+	private static final String KEY_LIBRARIES = "libraries";
 	private static final boolean DEF_USE_CUSTOM_LIB = false;
 	private static final String DEF_CUSTOM_LIB_PATH = "";
 	private static final boolean DEF_ENABLE_ERROR_MARKERS = false;
+	private static final int DEF_CHECK_TIMEOUT = 60;
+	private static final Map<String, String> DEF_LIBRARIES = Collections
+			.emptyMap();
+
+	private static Map<String, String> decodeLibraries(final String value) {
+		final Map<String, String> libraries = new LinkedHashMap<>();
+		if (value != null && !value.isEmpty()) {
+			try {
+				for (final Member member : JsonObject.readFrom(value)) {
+					if (member.getValue().isString()) {
+						libraries.put(member.getName(),
+								member.getValue().asString());
+					}
+				}
+			} catch (final IOException | RuntimeException e) {
+				// ignore the invalid value
+			}
+		}
+		return libraries;
+	}
+
+	private static String encodeLibraries(final Map<String, String> libraries) {
+		final JsonObject object = new JsonObject();
+		for (final Map.Entry<String, String> entry : libraries.entrySet()) {
+			object.add(entry.getKey(), entry.getValue());
+		}
+		return object.toString();
+	}
 
 	private final Lock readLock;
 	private final Lock writeLock;
@@ -48,6 +84,8 @@ public class JSHintPreferences {
 	private boolean useCustomLib;
 	private String customLibPath;
 	private boolean enableErrorMarkers;
+	private int checkTimeout;
+	private Map<String, String> libraries;
 	private boolean dirty;
 
 	public JSHintPreferences() {
@@ -59,9 +97,25 @@ public class JSHintPreferences {
 		customLibPath = node.get(KEY_CUSTOM_LIB_PATH, DEF_CUSTOM_LIB_PATH);
 		enableErrorMarkers = node.getBoolean(KEY_ENABLE_ERROR_MARKERS,
 				DEF_ENABLE_ERROR_MARKERS);
+		checkTimeout = node.getInt(KEY_CHECK_TIMEOUT, DEF_CHECK_TIMEOUT);
+		libraries = decodeLibraries(node.get(KEY_LIBRARIES, null));
 		dirty = false;
 	}
 
+	/**
+	 * Gets the maximum time a single file check may take.
+	 *
+	 * @return the timeout in seconds or 0 if not limited
+	 */
+	public int getCheckTimeout() {
+		try {
+			readLock.lock();
+			return checkTimeout;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
 	public String getCustomLibPath() {
 		try {
 			readLock.lock();
@@ -71,6 +125,20 @@ public class JSHintPreferences {
 		}
 	}
 
+	/**
+	 * Gets the additional JSHint libraries the projects can select.
+	 *
+	 * @return the library file paths by library identifier
+	 */
+	public Map<String, String> getLibraries() {
+		try {
+			readLock.lock();
+			return new LinkedHashMap<>(libraries);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
 	public boolean isEnableErrorMarkers() {
 		try {
 			readLock.lock();
@@ -102,12 +170,16 @@ public class JSHintPreferences {
 		setUseCustomLib(DEF_USE_CUSTOM_LIB);
 		setCustomLibPath(DEF_CUSTOM_LIB_PATH);
 		setEnableErrorMarkers(DEF_ENABLE_ERROR_MARKERS);
+		setCheckTimeout(DEF_CHECK_TIMEOUT);
+		setLibraries(DEF_LIBRARIES);
 	}
 
 	public void save() throws CoreException {
 		putUseCustomLib();
 		putCustomLibPath();
 		putEnableErrorMarkers();
+		putCheckTimeout();
+		putLibraries();
 		flushNode();
 		try {
 			writeLock.lock();
@@ -117,6 +189,18 @@ public class JSHintPreferences {
 		}
 	}
 
+	public void setCheckTimeout(final int checkTimeout) {
+		try {
+			writeLock.lock();
+			if (checkTimeout != this.checkTimeout) {
+				this.checkTimeout = checkTimeout;
+				dirty = true;
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
 	public void setCustomLibPath(final String customLibPath) {
 		try {
 			writeLock.lock();
@@ -141,6 +225,24 @@ public class JSHintPreferences {
 		}
 	}
 
+	/**
+	 * Sets the additional JSHint libraries the projects can select.
+	 *
+	 * @param libraries
+	 *            the library file paths by library identifier
+	 */
+	public void setLibraries(final Map<String, String> libraries) {
+		try {
+			writeLock.lock();
+			if (!libraries.equals(this.libraries)) {
+				this.libraries = new LinkedHashMap<>(libraries);
+				dirty = true;
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
 	public void setUseCustomLib(final boolean useCustomLib) {
 		try {
 			writeLock.lock();
@@ -164,6 +266,19 @@ public class JSHintPreferences {
 		}
 	}
 
+	private void putCheckTimeout() {
+		try {
+			readLock.lock();
+			if (checkTimeout == DEF_CHECK_TIMEOUT) {
+				node.remove(KEY_CHECK_TIMEOUT);
+			} else {
+				node.putInt(KEY_CHECK_TIMEOUT, checkTimeout);
+			}
+		} finally {
+			readLock.unlock();
+		}
+	}
+
 	private void putCustomLibPath() {
 		try {
 			readLock.lock();
@@ -190,6 +305,19 @@ public class JSHintPreferences {
 		}
 	}
 
+	private void putLibraries() {
+		try {
+			readLock.lock();
+			if (libraries.equals(DEF_LIBRARIES)) {
+				node.remove(KEY_LIBRARIES);
+			} else {
+				node.put(KEY_LIBRARIES, encodeLibraries(libraries));
+			}
+		} finally {
+			readLock.unlock();
+		}
+	}
+
 	private void putUseCustomLib() {
 		try {
 			readLock.lock();
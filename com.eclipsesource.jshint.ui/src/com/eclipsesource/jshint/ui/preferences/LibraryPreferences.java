@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.preferences;
+
+import org.osgi.service.prefs.Preferences;
+
+/**
+ * The JSHint library selected by a project.
+ */
+public class LibraryPreferences {
+
+	private static final String KEY_LIBRARY = "library"; //$NON-NLS-1$
+
+	/**
+	 * The library identifier selecting the workspace library.
+	 */
+	public static final String DEFAULT_LIBRARY = ""; //$NON-NLS-1$
+
+	private final Preferences node;
+	private boolean changed;
+
+	public LibraryPreferences(final Preferences node) {
+		this.node = node;
+	}
+
+	/**
+	 * Gets the identifier of the selected library.
+	 *
+	 * @return the library identifier or {@link #DEFAULT_LIBRARY} to use the
+	 *         library selected in the workspace preferences
+	 */
+	public String getLibraryId() {
+		return node.get(KEY_LIBRARY, DEFAULT_LIBRARY);
+	}
+
+	public void setLibraryId(final String value) {
+		if (!value.equals(getLibraryId())) {
+			if (DEFAULT_LIBRARY.equals(value)) {
+				node.remove(KEY_LIBRARY);
+			} else {
+				node.put(KEY_LIBRARY, value);
+			}
+			changed = true;
+		}
+	}
+
+	public boolean hasChanged() {
+		return changed;
+	}
+
+	public void clearChanged() {
+		changed = false;
+	}
+}
@@ -15,40 +15,42 @@ import static com.eclipsesource.jshint.ui.util.LayoutUtils.gridLayout;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.preference.PreferencePage;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.BusyIndicator;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
-import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 
 import com.eclipsesource.jshint.JSHint;
+import com.eclipsesource.jshint.JSHintLibraryRegistry;
 import com.eclipsesource.jshint.ui.Activator;
 import com.eclipsesource.jshint.ui.builder.BuilderUtils;
 import com.eclipsesource.jshint.ui.builder.JSHintBuilder;
+import com.eclipsesource.jshint.ui.builder.LibraryUtils;
 import com.eclipsesource.jshint.ui.preferences.JSHintPreferences;
 
 public class JSHintPreferencePage extends PreferencePage
 		implements IWorkbenchPreferencePage {
 
-	private static void validateFile(final File file)
+	private static void checkFile(final File file)
 			throws IllegalArgumentException {
 		if (!file.isFile()) {
 			throw new IllegalArgumentException("File does not exist");
@@ -56,6 +58,11 @@ public class JSHintPreferencePage extends PreferencePage
 		if (!file.canRead()) {
 			throw new IllegalArgumentException("File is not readable");
 		}
+	}
+
+	private static void validateFile(final File file)
+			throws IllegalArgumentException {
+		checkFile(file);
 		try {
 			final FileInputStream inputStream = new FileInputStream(file);
 			try {
@@ -78,6 +85,15 @@ public class JSHintPreferencePage extends PreferencePage
 
 	private Button enableErrorsCheckbox;
 
+	private Text checkTimeoutText;
+
+	private Text librariesText;
+
+	/*
+	 * the library paths found readable while editing, by identifier
+	 */
+	private final Map<String, String> checkedLibraries = new HashMap<>();
+
 	public JSHintPreferencePage() {
 		setPreferenceStore(Activator.getDefault().getPreferenceStore());
 		setDescription("General settings for JSHint");
@@ -93,6 +109,12 @@ public class JSHintPreferencePage extends PreferencePage
 	public boolean performOk() {
 		try {
 			if (preferences.isDirty()) {
+				// loading the libraries takes seconds, so only done here
+				final String error = evaluateLibraries();
+				if (error != null) {
+					setErrorMessage(error);
+					return false;
+				}
 				preferences.save();
 				triggerRebuild();
 			}
@@ -109,6 +131,8 @@ public class JSHintPreferencePage extends PreferencePage
 		gridLayout(composite).columns(3).spacing(3).marginTop(10);
 		createCustomJSHintArea(composite);
 		createEnableErrorMarkersArea(composite);
+		createCheckTimeoutArea(composite);
+		createLibrariesArea(composite);
 		updateControlsFromPrefs();
 		updateControlsEnabled();
 		return composite;
@@ -127,6 +151,21 @@ public class JSHintPreferencePage extends PreferencePage
 		super.performDefaults();
 	}
 
+	private void createCheckTimeoutArea(final Composite parent) {
+		final Label label = new Label(parent, SWT.NONE);
+		label.setText("&Maximum time to check a file (seconds):");
+		checkTimeoutText = new Text(parent, SWT.BORDER);
+		checkTimeoutText.setToolTipText(
+				"Files taking longer are skipped. Use 0 to disable the limit.");
+		gridData(checkTimeoutText).fillHorizontal().span(2, 1);
+		checkTimeoutText.addListener(SWT.Modify, new Listener() {
+			@Override
+			public void handleEvent(final Event event) {
+				validate();
+			}
+		});
+	}
+
 	private void createCustomJSHintArea(final Composite parent) {
 		defaultLibRadio = new Button(parent, SWT.RADIO);
 		final String version = JSHint.getDefaultLibraryVersion();
@@ -172,6 +211,22 @@ public class JSHintPreferencePage extends PreferencePage
 				1);
 	}
 
+	private void createLibrariesArea(final Composite parent) {
+		final Label label = new Label(parent, SWT.NONE);
+		label.setText(
+				"&Additional libraries the projects can select, one 'id=path' per line:");
+		gridData(label).fillHorizontal().span(3, 1).indent(0, 10);
+		librariesText = new Text(parent,
+				SWT.BORDER | SWT.MULTI | SWT.V_SCROLL);
+		gridData(librariesText).fillHorizontal().span(3, 1).heightHint(60);
+		librariesText.addListener(SWT.Modify, new Listener() {
+			@Override
+			public void handleEvent(final Event event) {
+				validate();
+			}
+		});
+	}
+
 	private void createEnableErrorMarkersArea(final Composite parent) {
 		enableErrorsCheckbox = new Button(parent, SWT.CHECK);
 		enableErrorsCheckbox.setText("Enable JSHint errors");
@@ -188,6 +243,26 @@ public class JSHintPreferencePage extends PreferencePage
 		});
 	}
 
+	/**
+	 * Loads the custom library and the additional libraries.
+	 *
+	 * @return the error message or <code>null</code> if valid
+	 */
+	private String evaluateLibraries() {
+		final String[] error = new String[1];
+		BusyIndicator.showWhile(getShell().getDisplay(), new Runnable() {
+			@Override
+			public void run() {
+				try {
+					validatePrefs();
+				} catch (final IllegalArgumentException exception) {
+					error[0] = exception.getMessage();
+				}
+			}
+		});
+		return error[0];
+	}
+
 	private void selectFile() {
 		final FileDialog fileDialog = new FileDialog(getShell(), SWT.OPEN);
 		fileDialog.setText("Select JSHint library file");
@@ -223,38 +298,99 @@ public class JSHintPreferencePage extends PreferencePage
 		defaultLibRadio.setSelection(!customLibRadio.getSelection());
 		customLibPathText.setText(preferences.getCustomLibPath());
 		enableErrorsCheckbox.setSelection(preferences.isEnableErrorMarkers());
+		checkTimeoutText
+				.setText(String.valueOf(preferences.getCheckTimeout()));
+		final StringBuilder libraries = new StringBuilder();
+		for (final Map.Entry<String, String> entry : preferences.getLibraries()
+				.entrySet()) {
+			libraries.append(entry.getKey()).append('=')
+					.append(entry.getValue()).append('\n');
+		}
+		librariesText.setText(libraries.toString());
 	}
 
 	private void validate() {
 		setErrorMessage(null);
 		setValid(false);
-		final Display display = getShell().getDisplay();
-		final Job validator = new Job("JSHint preferences validation") {
-			@Override
-			protected IStatus run(final IProgressMonitor monitor) {
+		if (!validateCheckTimeout()) {
+			setErrorMessage(
+					"The maximum time must be a positive number or 0.");
+			return;
+		}
+		final String librariesError = validateLibraries();
+		if (librariesError != null) {
+			setErrorMessage(librariesError);
+			return;
+		}
+		// only cheap checks while typing, the libraries are loaded on OK
+		if (preferences.isUseCustomLib()) {
+			try {
+				checkFile(new File(preferences.getCustomLibPath()));
+			} catch (final IllegalArgumentException exception) {
+				setErrorMessage(exception.getMessage());
+				return;
+			}
+		}
+		setValid(true);
+	}
+
+	private boolean validateCheckTimeout() {
+		try {
+			final int timeout = Integer
+					.parseInt(checkTimeoutText.getText().trim());
+			if (timeout >= 0) {
+				preferences.setCheckTimeout(timeout);
+				return true;
+			}
+		} catch (final NumberFormatException e) {
+			// invalid
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the additional libraries.
+	 *
+	 * @return the error message or <code>null</code> if valid
+	 */
+	private String validateLibraries() {
+		final Map<String, String> libraries = new LinkedHashMap<>();
+		for (final String line : librariesText.getText().split("\\R")) {
+			if (line.trim().isEmpty()) {
+				continue;
+			}
+			final int index = line.indexOf('=');
+			final String id = index > 0 ? line.substring(0, index).trim()
+					: "";
+			final String path = index > 0 ? line.substring(index + 1).trim()
+					: "";
+			if (id.isEmpty() || path.isEmpty()) {
+				return "Invalid library, expected 'id=path': " + line.trim();
+			}
+			if (JSHintLibraryRegistry.DEFAULT_ID.equals(id)
+					|| LibraryUtils.CUSTOM_ID.equals(id)) {
+				return String.format("The library id '%s' is reserved.", id);
+			}
+			if (libraries.put(id, path) != null) {
+				return String.format("The library id '%s' is duplicated.", id);
+			}
+		}
+		preferences.setLibraries(libraries);
+		// check the edited entries only
+		for (final Map.Entry<String, String> entry : libraries.entrySet()) {
+			final String id = entry.getKey();
+			final String path = entry.getValue();
+			if (!path.equals(checkedLibraries.get(id))) {
 				try {
-					monitor.beginTask("checking preferences", 1);
-					validatePrefs();
-					display.asyncExec(new Runnable() {
-						@Override
-						public void run() {
-							setValid(true);
-						}
-					});
-				} catch (final IllegalArgumentException exception) {
-					display.asyncExec(new Runnable() {
-						@Override
-						public void run() {
-							setErrorMessage(exception.getMessage());
-						}
-					});
-				} finally {
-					monitor.done();
+					checkFile(new File(path));
+				} catch (final IllegalArgumentException e) {
+					return String.format("Library '%s': %s", id,
+							e.getMessage());
 				}
-				return Status.OK_STATUS;
+				checkedLibraries.put(id, path);
 			}
-		};
-		validator.schedule();
+		}
+		return null;
 	}
 
 	private void validatePrefs() {
@@ -262,6 +398,16 @@ public class JSHintPreferencePage extends PreferencePage
 			final String path = preferences.getCustomLibPath();
 			validateFile(new File(path));
 		}
+		for (final Map.Entry<String, String> entry : preferences.getLibraries()
+				.entrySet()) {
+			try {
+				validateFile(new File(entry.getValue()));
+			} catch (final IllegalArgumentException e) {
+				final String msg = String.format("Library '%s': %s",
+						entry.getKey(), e.getMessage());
+				throw new IllegalArgumentException(msg, e);
+			}
+		}
 	}
 
 }
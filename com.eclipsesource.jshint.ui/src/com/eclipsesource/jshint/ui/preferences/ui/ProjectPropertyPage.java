@@ -13,23 +13,37 @@ package com.eclipsesource.jshint.ui.preferences.ui;
 import static com.eclipsesource.jshint.ui.util.LayoutUtils.gridData;
 import static com.eclipsesource.jshint.ui.util.LayoutUtils.gridLayout;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
 import org.osgi.service.prefs.Preferences;
 
 import com.eclipsesource.jshint.ui.Activator;
 import com.eclipsesource.jshint.ui.builder.BuilderUtils;
 import com.eclipsesource.jshint.ui.builder.JSHintBuilder;
+import com.eclipsesource.jshint.ui.builder.LibraryUtils;
 import com.eclipsesource.jshint.ui.preferences.EnablementPreferences;
+import com.eclipsesource.jshint.ui.preferences.LibraryPreferences;
 import com.eclipsesource.jshint.ui.preferences.ResourceSelector;
 
 public class ProjectPropertyPage extends AbstractPropertyPage {
 
 	private IncludesView includesView;
 
+	private Combo libraryCombo;
+
+	/*
+	 * the library identifiers, in the combo order
+	 */
+	private List<String> libraryIds;
+
 	@Override
 	public boolean performOk() {
 		try {
@@ -51,6 +65,7 @@ public class ProjectPropertyPage extends AbstractPropertyPage {
 	protected void performDefaults() {
 		super.performDefaults();
 		includesView.loadDefaults();
+		libraryCombo.select(0);
 	}
 
 	@Override
@@ -58,6 +73,7 @@ public class ProjectPropertyPage extends AbstractPropertyPage {
 		Composite composite = new Composite(parent, SWT.NONE);
 		gridLayout(composite).margin(0, 0).columns(1);
 		gridData(composite).fillBoth();
+		createLibraryArea(composite);
 		includesView = new IncludesView(composite, SWT.NONE,
 				getResource().getProject());
 		gridData(includesView).fillBoth();
@@ -65,11 +81,30 @@ public class ProjectPropertyPage extends AbstractPropertyPage {
 		return composite;
 	}
 
+	private void createLibraryArea(Composite parent) {
+		Composite composite = new Composite(parent, SWT.NONE);
+		gridLayout(composite).margin(0, 0).columns(2);
+		gridData(composite).fillHorizontal();
+		Label label = new Label(composite, SWT.NONE);
+		label.setText("JSHint &library:");
+		libraryCombo = new Combo(composite, SWT.DROP_DOWN | SWT.READ_ONLY);
+		gridData(libraryCombo).fillHorizontal();
+		libraryIds = new ArrayList<>();
+		libraryIds.add(LibraryPreferences.DEFAULT_LIBRARY);
+		libraryCombo.add("Use the workspace library");
+		for (String id : LibraryUtils.getLibraryIds()) {
+			libraryIds.add(id);
+			libraryCombo.add(id);
+		}
+	}
+
 	private void loadPreferences() {
 		Preferences node = getPreferences();
 		EnablementPreferences enablePreferences = new EnablementPreferences(
 				node);
 		includesView.loadPreferences(enablePreferences);
+		String id = new LibraryPreferences(node).getLibraryId();
+		libraryCombo.select(Math.max(0, libraryIds.indexOf(id)));
 	}
 
 	private boolean storePreferences() throws CoreException {
@@ -77,7 +112,10 @@ public class ProjectPropertyPage extends AbstractPropertyPage {
 		EnablementPreferences enablePreferences = new EnablementPreferences(
 				node);
 		includesView.storePreferences(enablePreferences);
-		if (enablePreferences.hasChanged()) {
+		LibraryPreferences libraryPreferences = new LibraryPreferences(node);
+		libraryPreferences.setLibraryId(
+				libraryIds.get(Math.max(0, libraryCombo.getSelectionIndex())));
+		if (enablePreferences.hasChanged() || libraryPreferences.hasChanged()) {
 			savePreferences();
 			return true;
 		}
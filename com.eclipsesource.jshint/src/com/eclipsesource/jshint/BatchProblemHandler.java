@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+/**
+ * Implementations of this class are used to handle problems returned from
+ * JSHint when checking a batch of texts.
+ *
+ * @see JSHint#checkAll(Iterable, BatchProblemHandler)
+ */
+public interface BatchProblemHandler {
+
+	/**
+	 * Handles a text whose check exceeded the time or instruction budget. The
+	 * default implementation rethrows the exception, which aborts the batch.
+	 *
+	 * @param index
+	 *            the zero-relative index of the text within the batch
+	 * @param text
+	 *            the text
+	 * @param exception
+	 *            the exception
+	 */
+	default void handleBudgetExceeded(final int index, final Text text,
+			final JSHintBudgetException exception) {
+		throw exception;
+	}
+
+	/**
+	 * Handles a text whose check failed in a worker process, e.g. because the
+	 * process died or did not respond in time. The default implementation
+	 * rethrows the exception, which aborts the batch.
+	 *
+	 * @param index
+	 *            the zero-relative index of the text within the batch
+	 * @param text
+	 *            the text
+	 * @param exception
+	 *            the exception
+	 * @see JSHintWorkerPool#checkAll(Iterable, BatchProblemHandler)
+	 */
+	default void handleCheckFailed(final int index, final Text text,
+			final JSHIntException exception) {
+		throw exception;
+	}
+
+	/**
+	 * Handles a problem occurred during the code check.
+	 *
+	 * @param index
+	 *            the zero-relative index of the text within the batch
+	 * @param text
+	 *            the text the problem belongs to
+	 * @param problem
+	 *            the problem
+	 */
+	void handleProblem(int index, Text text, IProblem problem);
+
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import org.mozilla.javascript.Context;
+
+/**
+ * The time and instruction budget of a single check.
+ */
+final class CheckBudget {
+
+	/**
+	 * Thrown when a budget is exceeded. This is an {@link Error} so the
+	 * JavaScript code cannot catch it.
+	 */
+	static final class ExceededError extends Error {
+
+		private static final long serialVersionUID = 1L;
+
+		ExceededError(final String message) {
+			super(message, null, false, false);
+		}
+	}
+
+	/**
+	 * Gets the budget bound to the given context.
+	 *
+	 * @param context
+	 *            the context
+	 * @return the budget or <code>null</code> if none
+	 */
+	static CheckBudget get(final Context context) {
+		return (CheckBudget) context.getThreadLocal(CheckBudget.class);
+	}
+
+	private final long timeout;
+	private final long deadline;
+	private final long maxInstructions;
+	private long instructions;
+
+	/**
+	 * Creates a new budget starting now.
+	 *
+	 * @param timeout
+	 *            the maximum time in milliseconds or 0 for no limit
+	 * @param maxInstructions
+	 *            the maximum number of instructions or 0 for no limit
+	 */
+	CheckBudget(final long timeout, final long maxInstructions) {
+		this.timeout = timeout;
+		this.maxInstructions = maxInstructions;
+		deadline = System.nanoTime() + timeout * 1_000_000L;
+	}
+
+	/**
+	 * Binds this budget to the given context.
+	 *
+	 * @param context
+	 *            the context
+	 */
+	void bind(final Context context) {
+		context.putThreadLocal(CheckBudget.class, this);
+	}
+
+	/**
+	 * Adds the given number of instructions to this budget.
+	 *
+	 * @param count
+	 *            the number of executed instructions
+	 * @throws ExceededError
+	 *             if the budget is exceeded.
+	 */
+	void consume(final int count) {
+		instructions += count;
+		if (maxInstructions > 0 && instructions > maxInstructions) {
+			throw new ExceededError(String.format(
+					"JSHint check aborted after %d instructions.",
+					instructions));
+		}
+		if (timeout > 0 && System.nanoTime() - deadline > 0) {
+			throw new ExceededError(String.format(
+					"JSHint check aborted after %d ms.", timeout));
+		}
+	}
+
+	/**
+	 * Removes this budget from the given context.
+	 *
+	 * @param context
+	 *            the context
+	 */
+	void unbind(final Context context) {
+		context.removeThreadLocal(CheckBudget.class);
+	}
+}
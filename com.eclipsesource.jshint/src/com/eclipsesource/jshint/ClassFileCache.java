@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.mozilla.javascript.CompilerEnvirons;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.GeneratedClassLoader;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.optimizer.ClassCompiler;
+
+/**
+ * Persistent cache of the classes generated by the Rhino class compiler for a
+ * JSHint library.
+ * <p>
+ * Entries are stored in one file per library, named after the SHA-256 hash of
+ * the library source. Each file also records the Rhino version used to
+ * generate the classes, so entries written by another Rhino version are
+ * ignored and overwritten. Files are written to a temporary file first and
+ * then moved in place, so concurrent writers never expose partial entries.
+ * </p>
+ */
+final class ClassFileCache {
+
+	/*
+	 * the file header
+	 */
+	private static final String MAGIC = "JSHINT-CLASSES-2";
+
+	/*
+	 * the cache file extension
+	 */
+	private static final String EXTENSION = ".classes";
+
+	/*
+	 * the cache directory
+	 */
+	private final File directory;
+
+	ClassFileCache(final File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Returns whether the classes of the given source are stored for the Rhino
+	 * version of the given context.
+	 *
+	 * @param context
+	 *            the current context
+	 * @param hash
+	 *            the hash of the source
+	 * @return <code>true</code> if stored
+	 */
+	boolean contains(final Context context, final String hash) {
+		final File file = new File(directory, hash + EXTENSION);
+		if (!file.isFile()) {
+			return false;
+		}
+		try (InputStream stream = Files.newInputStream(file.toPath());
+				DataInputStream input = new DataInputStream(
+						new BufferedInputStream(stream))) {
+			return MAGIC.equals(input.readUTF())
+					&& context.getImplementationVersion()
+							.equals(input.readUTF())
+					&& hash.equals(input.readUTF());
+		} catch (final IOException | RuntimeException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the compiled script for the given source, reading the classes from
+	 * the cache or compiling and storing them.
+	 *
+	 * @param context
+	 *            the current context
+	 * @param source
+	 *            the library source
+	 * @param hash
+	 *            the hash of the source
+	 * @param sourceName
+	 *            the name of the source
+	 * @return the compiled script
+	 */
+	Script getScript(final Context context, final String source,
+			final String hash, final String sourceName) {
+		final String version = context.getImplementationVersion();
+		final File file = new File(directory, hash + EXTENSION);
+		Object[] classes = read(file, version, hash);
+		if (classes != null) {
+			try {
+				return defineScript(context, classes);
+			} catch (final RuntimeException | LinkageError e) {
+				// invalid classes, compile again
+				file.delete();
+			}
+		}
+		final CompilerEnvirons environs = new CompilerEnvirons();
+		environs.initFromContext(context);
+		final ClassCompiler compiler = new ClassCompiler(environs);
+		final String className = "com.jshint.JSHintScript_" + hash;
+		classes = compiler.compileToClassFiles(source, sourceName, 1,
+				className);
+		write(file, version, hash, classes);
+		return defineScript(context, classes);
+	}
+
+	private Script defineScript(final Context context,
+			final Object[] classes) {
+		final GeneratedClassLoader loader = context
+				.createClassLoader(context.getApplicationClassLoader());
+		Class<?> main = null;
+		for (int i = 0; i < classes.length; i += 2) {
+			final String name = (String) classes[i];
+			final byte[] bytes = (byte[]) classes[i + 1];
+			final Class<?> clazz = loader.defineClass(name, bytes);
+			// the first class is the main script class
+			if (main == null) {
+				main = clazz;
+			}
+		}
+		loader.linkClass(main);
+		try {
+			return (Script) main.getDeclaredConstructor().newInstance();
+		} catch (final ReflectiveOperationException e) {
+			throw new IllegalStateException(
+					"Unable to create the compiled script.", e);
+		}
+	}
+
+	private Object[] read(final File file, final String version,
+			final String hash) {
+		if (!file.isFile()) {
+			return null;
+		}
+		// no count or length read from the file can exceed its size
+		final long size = file.length();
+		try (InputStream stream = Files.newInputStream(file.toPath());
+				DataInputStream input = new DataInputStream(
+						new BufferedInputStream(stream))) {
+			if (!MAGIC.equals(input.readUTF())
+					|| !version.equals(input.readUTF())
+					|| !hash.equals(input.readUTF())) {
+				return null;
+			}
+			final int count = checkSize(input.readInt(), size);
+			final Object[] classes = new Object[count * 2];
+			for (int i = 0; i < classes.length; i += 2) {
+				classes[i] = input.readUTF();
+				final byte[] bytes = new byte[checkSize(input.readInt(),
+						size)];
+				input.readFully(bytes);
+				classes[i + 1] = bytes;
+			}
+			return classes;
+		} catch (final IOException | RuntimeException e) {
+			// corrupted or unreadable, compile again
+			file.delete();
+			return null;
+		}
+	}
+
+	private static int checkSize(final int value, final long size)
+			throws IOException {
+		if (value < 0 || value > size) {
+			throw new IOException("Invalid size in cache file: " + value);
+		}
+		return value;
+	}
+
+	private void write(final File file, final String version,
+			final String hash, final Object[] classes) {
+		Path temp = null;
+		try {
+			Files.createDirectories(directory.toPath());
+			temp = Files.createTempFile(directory.toPath(), hash, ".tmp");
+			try (OutputStream stream = Files.newOutputStream(temp);
+					DataOutputStream output = new DataOutputStream(
+							new BufferedOutputStream(stream))) {
+				output.writeUTF(MAGIC);
+				output.writeUTF(version);
+				output.writeUTF(hash);
+				output.writeInt(classes.length / 2);
+				for (int i = 0; i < classes.length; i += 2) {
+					final byte[] bytes = (byte[]) classes[i + 1];
+					output.writeUTF((String) classes[i]);
+					output.writeInt(bytes.length);
+					output.write(bytes);
+				}
+			}
+			try {
+				Files.move(temp, file.toPath(),
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(temp, file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp = null;
+		} catch (final IOException e) {
+			// ignore, the cache is an optimization only
+		} finally {
+			if (temp != null) {
+				temp.toFile().delete();
+			}
+		}
+	}
+}
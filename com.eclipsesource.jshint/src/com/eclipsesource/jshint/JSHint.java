@@ -10,19 +10,17 @@
  ******************************************************************************/
 package com.eclipsesource.jshint;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
 
-import org.mozilla.javascript.Context;
-import org.mozilla.javascript.Function;
-import org.mozilla.javascript.NativeArray;
-import org.mozilla.javascript.RhinoException;
-import org.mozilla.javascript.ScriptableObject;
-
+import com.eclipsesource.jshint.JSHintEngine.ErrorHandler;
+import com.eclipsesource.jshint.JSHintEngine.Session;
 import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 
@@ -38,6 +36,10 @@ import com.eclipsesource.json.JsonValue;
  * jshint.configure( new Configuration() );
  * jshint.check( jsCode, new ProblemHandler() { ... } );
  * </pre>
+ * <p>
+ * Instances of this class must not be used concurrently from multiple threads.
+ * Use a {@link JSHintPool} to run checks in parallel.
+ * </p>
  *
  * @see http://www.jshint.com/
  */
@@ -58,6 +60,31 @@ public class JSHint {
 	 */
 	private static final int DEFAULT_JSHINT_INDENT = 4;
 
+	/*
+	 * the default maximum number of errors
+	 */
+	private static final int DEFAULT_JSHINT_MAXERR = 50;
+
+	/*
+	 * the configuration member listing the codes to include
+	 */
+	private static final String INCLUDE_CODES = "includeCodes";
+
+	/*
+	 * the configuration member listing the codes to exclude
+	 */
+	private static final String EXCLUDE_CODES = "excludeCodes";
+
+	/*
+	 * the code checked to warm up a library
+	 */
+	private static final String WARM_UP_CODE = "warmup.js";
+
+	/*
+	 * the number of checks of the warm-up code
+	 */
+	private static final int WARM_UP_CHECKS = 10;
+
 	/**
 	 * Returns the version of the built-in JSHint library that is used when
 	 * <code>load()</code> is called without a parameter.
@@ -73,73 +100,95 @@ public class JSHint {
 		runner.run(args);
 	}
 
-	private static String createShimCode() {
-		// Create shims to prevent problems with JSHint accessing
-		// objects that are not available in Rhino, e.g.
-		// https://github.com/jshint/jshint/issues/1038
-		return "console = {" //
-				+ "log:function(){}," //
-				+ "error:function(){}," //
-				+ "trace:function(){}" //
-				+ "};" //
-				+ "window = {};" //
-				+ "options = {};" //
-				+ "global = this;";
+	/**
+	 * Loads the default JSHint library and warms it up.
+	 *
+	 * @throws IOException
+	 *             if the library cannot be loaded.
+	 * @see #warmUp(JSHintLibrary)
+	 */
+	public static void warmUp() throws IOException {
+		warmUp(JSHintLibrary.getDefault());
 	}
 
-	private static Function findJSHintFunction(final ScriptableObject scope)
-			throws IllegalArgumentException {
-		if (!ScriptableObject.hasProperty(scope, "JSHINT")) {
-			throw new IllegalArgumentException(
-					"Global JSHINT function missing in input");
-		}
+	/**
+	 * Checks a small built-in corpus a few times with the given library, so
+	 * the library code is optimized by the JVM before the first real check.
+	 * This takes a few seconds; call it from a background thread.
+	 *
+	 * @param library
+	 *            the library to warm up, must not be null
+	 * @throws IOException
+	 *             if the warm-up code cannot be read.
+	 */
+	public static void warmUp(final JSHintLibrary library)
+			throws IOException {
+		warmUp(library, () -> false);
+	}
 
-		final Object object = scope.get("JSHINT", scope);
-		if (!(object instanceof Function)) {
-			throw new IllegalArgumentException(
-					"Global JSHINT is not a function");
+	/**
+	 * Warms up the given library like {@link #warmUp(JSHintLibrary)}, stopping
+	 * early when canceled. The checks hold the library lock, so a library
+	 * shared with other checkers should be warmed up through a
+	 * {@link JSHintLibrary#newInstance() new instance}.
+	 *
+	 * @param library
+	 *            the library to warm up, must not be null
+	 * @param canceled
+	 *            tells whether to stop, asked before each check, must not be
+	 *            null
+	 * @throws IOException
+	 *             if the warm-up code cannot be read.
+	 */
+	public static void warmUp(final JSHintLibrary library,
+			final BooleanSupplier canceled) throws IOException {
+		Objects.requireNonNull(library, "The 'library' parameter is null.");
+		Objects.requireNonNull(canceled, "The 'canceled' parameter is null.");
+		final Text text;
+		try (InputStream stream = JSHint.class
+				.getResourceAsStream(WARM_UP_CODE);
+				Reader reader = new InputStreamReader(stream,
+						StandardCharsets.UTF_8)) {
+			text = new Text(reader);
 		}
-		return (Function) object;
+		final JsonObject configuration = new JsonObject() //
+				.add("esversion", 11) //
+				.add("undef", true) //
+				.add("unused", true) //
+				.add("eqeqeq", true);
+		final JSHint jshint = new JSHint();
+		jshint.load(library);
+		jshint.configure(configuration);
+		final ProblemHandler handler = problem -> {
+			// the problems are only converted
+		};
+		for (int i = 0; i < WARM_UP_CHECKS && !canceled.getAsBoolean(); i++) {
+			jshint.check(text, handler);
+		}
+		jshint.reset();
 	}
 
-	private static BufferedReader getJsHintReader() throws IOException {
-		// Include DEFAULT_JSHINT_VERSION in name to ensure the constant matches
-		// the actual version
-		final String name = String.format("com/jshint/jshint.%s.js",
-				DEFAULT_JSHINT_VERSION);
-
-		final ClassLoader classLoader = JSHint.class.getClassLoader();
-		final InputStream stream = classLoader.getResourceAsStream(name);
-		return new BufferedReader(new InputStreamReader(stream, "UTF-8"));
-	}
+	/*
+	 * the engine running the library or null if not loaded
+	 */
+	private JSHintEngine engine;
 
-	private static int getPropertyAsInt(final ScriptableObject object,
-			final String name, final int defaultValue) {
-		final Object property = ScriptableObject.getProperty(object, name);
-		if (property instanceof Number) {
-			return ((Number) property).intValue();
-		}
-		return defaultValue;
-	}
+	/*
+	 * the configuration or null if not configured
+	 */
+	private JsonObject configuration;
 
-	private static String getPropertyAsString(final ScriptableObject object,
-			final String name, final String defaultValue) {
-		final Object property = ScriptableObject.getProperty(object, name);
-		if (property instanceof CharSequence) {
-			return ((CharSequence) property).toString();
-		}
-		return defaultValue;
-	}
+	private CodeFilter codeFilter = CodeFilter.ALL;
 
-	private ScriptableObject scope;
+	private int indent = DEFAULT_JSHINT_INDENT;
 
-	private Function jshint;
+	private int maxErrors = DEFAULT_JSHINT_MAXERR;
 
-	private Object options;
+	private long timeout;
 
-	private Object globals;
+	private long maxInstructions;
 
-	private int indent = DEFAULT_JSHINT_INDENT;
+	private boolean resetAfterCheck;
 
 	/**
 	 * Checks the given JavaScript code. All problems will be reported to the
@@ -157,81 +206,198 @@ public class JSHint {
 		return check(new Text(code), handler);
 	}
 
+	/**
+	 * Checks the given text. All problems will be reported to the given
+	 * problem handler. If the handler is also a {@link ReportHandler}, it
+	 * then receives the data report of the text, unless the text is empty.
+	 *
+	 * @param text
+	 *            the text to check, must not be null
+	 * @param handler
+	 *            the handler to report problems to or <code>null</code>
+	 * @return <code>true</code> if no problems have been found, otherwise
+	 *         <code>false</code>
+	 * @throws JSHintBudgetException
+	 *             if the check exceeds the time or instruction budget.
+	 */
 	public boolean check(final Text text, final ProblemHandler handler) {
 		Objects.requireNonNull(text, "The 'text' parameter is null.");
-		if (jshint == null) {
-			throw new IllegalStateException("JSHint is not loaded");
+		try (Session session = openSession()) {
+			try {
+				return checkText(session, text, handler);
+			} finally {
+				if (resetAfterCheck) {
+					session.reset();
+				}
+			}
 		}
+	}
 
+	/**
+	 * Checks all the given texts. The engine session is opened only once for
+	 * the whole batch. All problems will be reported to the given handler
+	 * together with the index of the text they belong to.
+	 * <p>
+	 * If the reset after check is enabled, the state of JSHint is released
+	 * once, after the last text.
+	 * </p>
+	 *
+	 * @param texts
+	 *            the texts to check, must not be null
+	 * @param handler
+	 *            the handler to report problems to or <code>null</code>
+	 * @return <code>true</code> if no problems have been found in any text,
+	 *         otherwise <code>false</code>
+	 * @see #check(Text, ProblemHandler)
+	 */
+	public boolean checkAll(final Iterable<Text> texts,
+			final BatchProblemHandler handler) {
+		Objects.requireNonNull(texts, "The 'texts' parameter is null.");
 		boolean result = true;
-		final String code = text.getContent();
-		// Don't feed jshint with empty strings, see
-		// https://github.com/jshint/jshint/issues/615
-		// However, consider an empty string valid
-		if (!code.trim().isEmpty()) {
-			final Context context = Context.enter();
+		try (Session session = openSession()) {
 			try {
-				result = checkCode(context, code);
-				if (!result && handler != null) {
-					handleProblems(handler, text);
+				int index = 0;
+				for (final Text text : texts) {
+					final int current = index++;
+					final ProblemHandler problemHandler = handler == null
+							? null
+							: problem -> handler.handleProblem(current, text,
+									problem);
+					try {
+						result &= checkText(session, text, problemHandler);
+					} catch (final JSHintBudgetException e) {
+						result = false;
+						if (handler == null) {
+							throw e;
+						}
+						handler.handleBudgetExceeded(current, text, e);
+					}
 				}
-
-				// jshint.call(context, scope, null, args))
-				// .booleanValue();
-				// jshint.call(context, scope, thisObj, args)
-				// jshint.get("data", jshint);
-
 			} finally {
-				Context.exit();
+				if (resetAfterCheck) {
+					session.reset();
+				}
 			}
 		}
 		return result;
 	}
 
+	/**
+	 * Checks the given text and passes all problems to the given sink as
+	 * primitive values, without creating problem objects.
+	 *
+	 * @param text
+	 *            the text to check, must not be null
+	 * @param sink
+	 *            the sink to pass the problems to, must not be null
+	 * @return <code>true</code> if no problems have been found, otherwise
+	 *         <code>false</code>
+	 * @throws JSHintBudgetException
+	 *             if the check exceeds the time or instruction budget.
+	 * @see ProblemBuffer
+	 */
+	public boolean collect(final Text text, final ProblemSink sink) {
+		Objects.requireNonNull(text, "The 'text' parameter is null.");
+		Objects.requireNonNull(sink, "The 'sink' parameter is null.");
+		try (Session session = openSession()) {
+			try {
+				return checkText(session, text, sink.getMaxProblems(),
+						(line, character, code, reason) -> {
+							sink.accept(line, character,
+									ProblemCodes.toId(code),
+									ProblemRegistry.internMessage(reason));
+							return !sink.isDone();
+						}, null);
+			} finally {
+				if (resetAfterCheck) {
+					session.reset();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Sets the configuration to use for all subsequent checks.
+	 * <p>
+	 * Besides the JSHint options, the configuration can contain the
+	 * <code>includeCodes</code> and <code>excludeCodes</code> arrays of problem
+	 * codes. They define the code filter and are not passed to JSHint.
+	 * </p>
 	 *
 	 * @param configuration
 	 *            the configuration to use, must not be null
+	 * @throws IllegalArgumentException
+	 *             if a filter member is not an array of strings, the message
+	 *             names the member.
+	 * @see #setCodeFilter(CodeFilter)
 	 */
 	public void configure(final JsonObject configuration) {
 		Objects.requireNonNull(configuration,
 				"The 'configuration' parameter is null.");
-		final Context context = Context.enter();
-		try {
-			final ScriptableObject scope = context.initStandardObjects();
-			final JsonValue globalsValue = configuration.get("globals");
-			if (globalsValue != null) {
-				final String globalsExpression = String.format("globals = %s;",
-						globalsValue);
-				globals = context.evaluateString(scope, globalsExpression,
-						"[globals]", 1, null);
-			}
-			configuration.remove("globals");
-			final String optionsExpression = String.format("options = %s;",
-					configuration);
-			options = context.evaluateString(scope, optionsExpression,
-					"[options]", 1, null);
-			indent = determineIndent(configuration);
-		} finally {
-			Context.exit();
+		final CodeFilter filter = CodeFilter.create(
+				getCodes(configuration, INCLUDE_CODES),
+				getCodes(configuration, EXCLUDE_CODES));
+		this.configuration = configuration;
+		indent = determineIndent(configuration);
+		maxErrors = determineMaxErrors(configuration);
+		codeFilter = filter;
+		if (engine != null) {
+			engine.configure(getEngineConfiguration());
 		}
 	}
 
+	/**
+	 * Returns the filter of the reported problem codes.
+	 *
+	 * @return the filter
+	 * @see #setCodeFilter(CodeFilter)
+	 */
+	public CodeFilter getCodeFilter() {
+		return codeFilter;
+	}
+
+	/**
+	 * Returns the maximum number of JavaScript instructions a single check may
+	 * execute.
+	 *
+	 * @return the maximum number of instructions or 0 if not limited
+	 */
+	public long getMaxInstructions() {
+		return maxInstructions;
+	}
+
+	/**
+	 * Returns the maximum time a single check may take.
+	 *
+	 * @return the time in milliseconds or 0 if not limited
+	 */
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Returns whether the state of JSHint is released after each check.
+	 *
+	 * @return <code>true</code> if released after each check
+	 * @see #reset()
+	 */
+	public boolean isResetAfterCheck() {
+		return resetAfterCheck;
+	}
+
 	/**
 	 * Loads the default JSHint library.
 	 *
 	 * @see #getDefaultLibraryVersion()
 	 */
 	public void load() throws IOException {
-		try (final Reader reader = getJsHintReader()) {
-			load(reader);
-		}
+		load(JSHintLibrary.getDefault());
 	}
 
 	/**
 	 * Loads a custom JSHint library. The input stream must provide the contents
-	 * of the file <code>jshint.js</code> found in the JSHint distribution.
+	 * of the file <code>jshint.js</code> found in the JSHint distribution,
+	 * encoded in UTF-8.
 	 *
 	 * @param stream
 	 *            an input stream to load the the JSHint library from.
@@ -241,57 +407,196 @@ public class JSHint {
 	 *             if the given input is not a proper JSHint library file.
 	 */
 	public void load(final InputStream stream) throws IOException {
-		try (final Reader reader = new InputStreamReader(stream)) {
-			load(reader);
+		load(JSHintLibrary.load(stream));
+	}
+
+	/**
+	 * Uses the given engine to run the checks. The current configuration, if
+	 * any, is applied to the engine.
+	 *
+	 * @param engine
+	 *            the engine to use, must not be null
+	 */
+	public void load(final JSHintEngine engine) {
+		Objects.requireNonNull(engine, "The 'engine' parameter is null.");
+		if (configuration != null) {
+			engine.configure(getEngineConfiguration());
 		}
+		this.engine = engine;
 	}
 
-	private boolean checkCode(final Context context, final String code) {
-		try {
-			final Object[] args = new Object[] { code, options, globals };
-			return ((Boolean) jshint.call(context, scope, null, args))
-					.booleanValue();
-		} catch (final RhinoException e) {
-			final String message = "JavaScript exception thrown by JSHint: "
-					+ e.getMessage();
-			throw new JSHIntException(message, e);
+	/**
+	 * Uses the given, already loaded, JSHint library.
+	 *
+	 * @param library
+	 *            the library to use, must not be null
+	 */
+	public void load(final JSHintLibrary library) {
+		Objects.requireNonNull(library, "The 'library' parameter is null.");
+		load(new RhinoEngine(library));
+	}
+
+	/**
+	 * Releases the state kept by JSHint from the last check (errors, tokens,
+	 * scopes and function data). Afterwards, only the library itself stays
+	 * reachable from this instance.
+	 */
+	public void reset() {
+		try (Session session = openSession()) {
+			session.reset();
+		}
+	}
+
+	/**
+	 * Sets the filter of the reported problem codes. The rejected problems are
+	 * dropped while the JSHint results are read, before any problem is
+	 * created, and do not count as problems in the check result. The excluded
+	 * warnings are also passed to JSHint as <code>-W</code> options, so JSHint
+	 * does not report them at all.
+	 * <p>
+	 * The filter is replaced by the next call to
+	 * {@link #configure(JsonObject)}, which reads it from the
+	 * <code>includeCodes</code> and <code>excludeCodes</code> members.
+	 * </p>
+	 *
+	 * @param codeFilter
+	 *            the filter, must not be null
+	 */
+	public void setCodeFilter(final CodeFilter codeFilter) {
+		Objects.requireNonNull(codeFilter,
+				"The 'codeFilter' parameter is null.");
+		this.codeFilter = codeFilter;
+		if (engine != null && configuration != null) {
+			engine.configure(getEngineConfiguration());
+		}
+	}
+
+	/**
+	 * Sets the maximum number of JavaScript instructions a single check may
+	 * execute. A check exceeding this budget is aborted with a
+	 * {@link JSHintBudgetException}.
+	 *
+	 * @param maxInstructions
+	 *            the maximum number of instructions or 0 for no limit
+	 */
+	public void setMaxInstructions(final long maxInstructions) {
+		this.maxInstructions = Math.max(0, maxInstructions);
+	}
+
+	/**
+	 * Sets whether the state of JSHint is released after each check. This
+	 * avoids to retain the data of large inputs between checks, at the cost of
+	 * running a minimal check after each one.
+	 *
+	 * @param resetAfterCheck
+	 *            <code>true</code> to release the state after each check
+	 * @see #reset()
+	 */
+	public void setResetAfterCheck(final boolean resetAfterCheck) {
+		this.resetAfterCheck = resetAfterCheck;
+	}
+
+	/**
+	 * Sets the maximum time a single check may take. A check exceeding this
+	 * budget is aborted with a {@link JSHintBudgetException}.
+	 *
+	 * @param timeout
+	 *            the time in milliseconds or 0 for no limit
+	 */
+	public void setTimeout(final long timeout) {
+		this.timeout = Math.max(0, timeout);
+	}
+
+	/**
+	 * Returns the configuration given to {@link #configure(JsonObject)}.
+	 *
+	 * @return the configuration or <code>null</code> if not configured
+	 */
+	JsonObject getConfiguration() {
+		return configuration;
+	}
+
+	private boolean checkText(final Session session, final Text text,
+			final ProblemHandler handler) {
+		if (handler == null) {
+			// the first error decides the result
+			return checkText(session, text, 1, null, null);
 		}
+		final ReportHandler reportHandler = handler instanceof ReportHandler
+				? (ReportHandler) handler
+				: null;
+		return checkText(session, text, handler.getMaxProblems(),
+				(line, character, code, reason) -> {
+					handler.handleProblem(ProblemRegistry
+							.createProblem(line, character, reason, code));
+					return !handler.isDone();
+				}, reportHandler);
 	}
 
 	/**
-	 * See: http://jshint.com/docs/reporters/
+	 * Checks the given text.
 	 *
-	 * <pre>
-	 * {
-	 *      file:  [string, filename]
-	 *      error: {
-	 *              id:        [string, usually '(error)'],
-	 *              code:      [string, error/warning code],
-	 *              reason:    [string, error/warning message],
-	 *              evidence:  [string, a piece of code that generated this error]
-	 *              line:      [number]
-	 *              character: [number]
-	 *              scope:     [string, message scope; usually '(main)' unless the code was eval'ed]
-	 *              [+ a few other legacy fields that you don't need to worry about.]
-	 *      }
-	 * }
-	 * </pre>
-	 */
-	private IProblem createProblem(final ScriptableObject error,
-			final Text text) {
-		final String reason = getPropertyAsString(error, "reason", "");
-		int line = getPropertyAsInt(error, "line", -1);
-		int character = getPropertyAsInt(error, "character", -1);
-		final String code = getPropertyAsString(error, "code", "");
-
-		if (line <= 0 || line > text.getLineCount()) {
-			line = -1;
-			character = -1;
-		} else if (character > 0) {
-			character = visualToCharIndex(text, line, character);
+	 * @param maxProblems
+	 *            the maximum number of problems wanted or 0 for no limit
+	 * @param errorHandler
+	 *            the handler receiving the errors, with the character
+	 *            positions mapped to the text, or <code>null</code>
+	 * @param reportHandler
+	 *            the handler receiving the data report or <code>null</code>
+	 */
+	private boolean checkText(final Session session, final Text text,
+			final int maxProblems, final ErrorHandler errorHandler,
+			final ReportHandler reportHandler) {
+		Objects.requireNonNull(text, "The 'text' parameter is null.");
+		final String code = text.getContent();
+		// Don't feed jshint with empty strings, see
+		// https://github.com/jshint/jshint/issues/615
+		// However, consider an empty string valid
+		if (code.trim().isEmpty()) {
+			return true;
 		}
 
-		return new Problem(line, character, reason, code);
+		// JSHint would count the filtered problems for a lowered maxerr, so
+		// keep the configured one when filtering
+		final CodeFilter filter = codeFilter;
+		final boolean filtered = !filter.isAll();
+		final int limit = !filtered && maxProblems > 0
+				&& maxProblems < maxErrors ? maxProblems : 0;
+		boolean result = session.check(code, limit, timeout,
+				maxInstructions);
+		if (!result && (errorHandler != null || filtered)) {
+			final boolean[] found = new boolean[1];
+			session.extract((line, character, problemCode, reason) -> {
+				found[0] = true;
+				if (errorHandler == null) {
+					// the first accepted error decides the result
+					return false;
+				}
+				if (line <= 0 || line > text.getLineCount()) {
+					return errorHandler.handleError(-1, -1, problemCode,
+							reason);
+				}
+				// JSHint reports visual columns, tabs expanded to the indent
+				// width
+				final int index = character > 0
+						? text.getCharIndex(line - 1, character, indent)
+						: character;
+				return errorHandler.handleError(line, index, problemCode,
+						reason);
+			}, filter);
+			if (filtered) {
+				result = !found[0];
+			}
+		}
+		if (reportHandler != null) {
+			final DataReport report = new DataReport(session::getData);
+			try {
+				reportHandler.handleReport(report);
+			} finally {
+				report.invalidate();
+			}
+		}
+		return result;
 	}
 
 	private int determineIndent(final JsonObject configuration) {
@@ -302,65 +607,48 @@ public class JSHint {
 		return DEFAULT_JSHINT_INDENT;
 	}
 
-	private void handleProblems(final ProblemHandler handler, final Text text) {
-		final NativeArray errors = (NativeArray) jshint.get("errors", jshint);
-		final long length = errors.getLength();
-		for (int i = 0; i < length; i++) {
-			final Object object = errors.get(i, errors);
-			final ScriptableObject error = (ScriptableObject) object;
-			if (error != null) {
-				final IProblem problem = createProblem(error, text);
-				handler.handleProblem(problem);
-			}
+	private int determineMaxErrors(final JsonObject configuration) {
+		final JsonValue value = configuration.get("maxerr");
+		if (value != null && value.isNumber()) {
+			return value.asInt();
 		}
+		return DEFAULT_JSHINT_MAXERR;
 	}
 
-	private void load(final Reader reader) throws IOException {
-		final Context context = Context.enter();
+	/**
+	 * Parses the given include or exclude codes option. An invalid value is
+	 * rethrown as an {@link IllegalArgumentException} naming the option.
+	 */
+	private List<String> getCodes(final JsonObject configuration,
+			final String name) {
 		try {
-			context.setOptimizationLevel(9);
-			context.setLanguageVersion(Context.VERSION_1_5);
-			scope = context.initStandardObjects();
-			context.evaluateString(scope, createShimCode(), "shim", 1, null);
-			context.evaluateReader(scope, reader, "jshint-library", 1, null);
-			jshint = findJSHintFunction(scope);
-		} catch (final RhinoException e) {
-			throw new IOException("Could not evaluate JavaScript input.", e);
-		} finally {
-			Context.exit();
+			return CodeFilter.toCodes(configuration.get(name));
+		} catch (final IllegalArgumentException e) {
+			final String msg = String.format("Invalid '%s' option: %s", name,
+					e.getMessage());
+			throw new IllegalArgumentException(msg, e);
 		}
 	}
 
 	/**
-	 * JSHint reports "visual" character positions instead of a character index,
-	 * i.e. the first character is 1 and every tab character is multiplied by
-	 * the indent with. Example with tabulation as 4 spaces:
-	 * <p>
-	 * <code>
-	 * <pre>
-	 *          "a\tb\tc"
-	 *
-	 * index:  | 0 | 1 | 2 | 3 | 4 | 5 | 6 | 7 | 8 | 9 | 10|
-	 * char:   | a | » | b | » | c |
-	 * visual:     | a | »             | b | »             | c |
-	 * </pre>
-	 * </code>
-	 * </p>
+	 * Gets the configuration passed to the engine: the filter members are
+	 * replaced by the <code>-W</code> options of the excluded warnings.
 	 */
-	private int visualToCharIndex(final Text text, final int line,
-			final int character) {
-		boolean isTab;
-		int charIndex = 0;
-		int visualIndex = 1;
-		final String string = text.getContent();
-		final int offset = text.getLineOffset(line - 1);
-		final int maxCharIndex = string.length() - offset - 1;
-
-		while (visualIndex != character && charIndex < maxCharIndex) {
-			isTab = string.charAt(offset + charIndex) == '\t';
-			visualIndex += isTab ? indent : 1;
-			charIndex++;
+	private JsonObject getEngineConfiguration() {
+		final JsonObject result = new JsonObject(configuration)
+				.remove(INCLUDE_CODES).remove(EXCLUDE_CODES);
+		for (final String code : codeFilter.getExcludedCodes()) {
+			if (code.charAt(0) == 'W') {
+				result.set("-" + code, true);
+			}
+		}
+		return result;
+	}
+
+	private Session openSession() {
+		if (engine == null) {
+			throw new IllegalStateException("JSHint is not loaded");
 		}
-		return charIndex;
+		return engine.open();
 	}
 }
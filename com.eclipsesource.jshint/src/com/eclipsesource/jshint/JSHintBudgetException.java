@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+/**
+ * Thrown when a check exceeds its time or instruction budget.
+ *
+ * @see JSHint#setTimeout(long)
+ * @see JSHint#setMaxInstructions(long)
+ */
+public class JSHintBudgetException extends JSHIntException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new exception with the specified detail message.
+	 *
+	 * @param message
+	 *            the detail message.
+	 */
+	public JSHintBudgetException(final String message) {
+		super(message, null);
+	}
+}
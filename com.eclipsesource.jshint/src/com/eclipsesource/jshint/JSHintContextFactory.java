@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+
+/**
+ * The context factory used to compile and run the JSHint library.
+ * <p>
+ * Contexts created by this factory use the JavaScript 1.5 language version,
+ * generate no debug information and observe the executed instructions, so a
+ * {@link CheckBudget} bound to the context can abort a long running check.
+ * Scripts must be compiled with a context of this factory to generate the
+ * instruction count callbacks.
+ * </p>
+ * <p>
+ * Each thread reuses the same context, see {@link #enterThreadContext()}.
+ * The optimization level defaults to the compiled mode and is set by the code
+ * compiling scripts.
+ * </p>
+ */
+final class JSHintContextFactory extends ContextFactory {
+
+	/*
+	 * the number of instructions between two budget checks
+	 */
+	private static final int INSTRUCTION_THRESHOLD = 100_000;
+
+	/*
+	 * the shared instance
+	 */
+	private static final JSHintContextFactory INSTANCE = new JSHintContextFactory();
+
+	/**
+	 * Gets the shared instance.
+	 *
+	 * @return the factory
+	 */
+	static JSHintContextFactory getDefault() {
+		return INSTANCE;
+	}
+
+	/*
+	 * the context of each thread
+	 */
+	private final ThreadLocal<Context> contexts = ThreadLocal
+			.withInitial(this::makeContext);
+
+	private JSHintContextFactory() {
+	}
+
+	/**
+	 * Enters the context bound to the current thread, creating it on the
+	 * first call. Like any entered context, it must be exited with
+	 * {@link Context#exit()}. If a context of this factory is already entered
+	 * on the current thread, this context is entered again instead. Callers
+	 * changing the settings of the returned context must restore them before
+	 * exiting it.
+	 *
+	 * @return the entered context
+	 * @throws IllegalStateException
+	 *             if a context of another factory is entered on the current
+	 *             thread, Rhino would run the scripts with its settings and
+	 *             without the check budget.
+	 */
+	Context enterThreadContext() {
+		final Context current = Context.getCurrentContext();
+		if (current != null && current.getFactory() != this) {
+			throw new IllegalStateException(
+					"Cannot run JSHint inside a context of another factory.");
+		}
+		return enterContext(contexts.get());
+	}
+
+	@Override
+	protected Context makeContext() {
+		final Context context = super.makeContext();
+		context.setLanguageVersion(Context.VERSION_1_5);
+		context.setOptimizationLevel(
+				ExecutionMode.COMPILED.getOptimizationLevel());
+		context.setGeneratingDebug(false);
+		// also enables the instruction count generation for compiled scripts
+		context.setInstructionObserverThreshold(INSTRUCTION_THRESHOLD);
+		return context;
+	}
+
+	@Override
+	protected void observeInstructionCount(final Context context,
+			final int instructionCount) {
+		final CheckBudget budget = CheckBudget.get(context);
+		if (budget != null) {
+			budget.consume(instructionCount);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import com.eclipsesource.json.JsonObject;
+
+/**
+ * An engine executing a loaded JSHint library.
+ * <p>
+ * The engine hides the JavaScript runtime from {@link JSHint}. It only deals
+ * with the raw JSHint results; the mapping of the reported positions to the
+ * checked text and the creation of the problems is done by the caller.
+ * </p>
+ * <p>
+ * An engine is used by one thread at a time. All the checks run in a
+ * {@link Session}, so implementations can acquire and release the runtime
+ * resources only once for a batch of checks.
+ * </p>
+ *
+ * @see JSHint#load(JSHintEngine)
+ */
+public interface JSHintEngine {
+
+	/**
+	 * Receives the errors reported by the last check.
+	 */
+	@FunctionalInterface
+	interface ErrorHandler {
+
+		/**
+		 * Handles an error reported by JSHint.
+		 *
+		 * @param line
+		 *            the line number, starting at 1, or -1 if unknown
+		 * @param character
+		 *            the visual character position, starting at 1, or -1 if
+		 *            unknown
+		 * @param code
+		 *            the error code, e.g. <code>W033</code>, or an empty
+		 *            string
+		 * @param reason
+		 *            the error message or an empty string
+		 * @return <code>true</code> to receive the next error,
+		 *         <code>false</code> to stop
+		 */
+		boolean handleError(int line, int character, String code,
+				String reason);
+	}
+
+	/**
+	 * A sequence of checks run on the current thread. Sessions must be closed.
+	 */
+	interface Session extends AutoCloseable {
+
+		/**
+		 * Checks the given JavaScript code.
+		 *
+		 * @param code
+		 *            the code to check, must not be empty
+		 * @param maxErrors
+		 *            the value replacing the configured <code>maxerr</code>
+		 *            option or 0 to use the configured one
+		 * @param timeout
+		 *            the maximum time in milliseconds or 0 for no limit
+		 * @param maxInstructions
+		 *            the maximum number of instructions or 0 for no limit. The
+		 *            instruction unit is defined by the engine.
+		 * @return <code>true</code> if no problems have been found, otherwise
+		 *         <code>false</code>
+		 * @throws JSHintBudgetException
+		 *             if the check exceeds the time or instruction budget.
+		 * @throws JSHIntException
+		 *             if JSHint fails.
+		 */
+		boolean check(String code, int maxErrors, long timeout,
+				long maxInstructions);
+
+		/**
+		 * Reports the errors found by the last check to the given handler.
+		 * The errors rejected by the filter are skipped before any value
+		 * other than the code is read.
+		 *
+		 * @param handler
+		 *            the handler, must not be null
+		 * @param filter
+		 *            the filter of the error codes, must not be null
+		 */
+		void extract(ErrorHandler handler, CodeFilter filter);
+
+		/**
+		 * Gets the data report of the last check, as returned by
+		 * <code>JSHINT.data()</code>.
+		 *
+		 * @return the report
+		 */
+		JsonObject getData();
+
+		/**
+		 * Releases the state kept by JSHint from the last check.
+		 */
+		void reset();
+
+		/**
+		 * Ends this session.
+		 */
+		@Override
+		void close();
+	}
+
+	/**
+	 * Sets the configuration to use for all subsequent checks.
+	 *
+	 * @param configuration
+	 *            the JSHint configuration, including the <code>globals</code>
+	 *            member, must not be null
+	 */
+	void configure(JsonObject configuration);
+
+	/**
+	 * Starts a new session on the current thread.
+	 *
+	 * @return the session
+	 */
+	Session open();
+}
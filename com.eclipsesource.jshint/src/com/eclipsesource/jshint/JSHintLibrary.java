@@ -0,0 +1,441 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+
+/**
+ * A JSHint library evaluated into a sealed top-level scope.
+ * <p>
+ * The library code is compiled once per process and evaluated only once per
+ * library. All the JSHint instances using the same library share its scope
+ * and get a cheap child scope in which the checks run. Because the global
+ * <code>JSHINT</code> function keeps the state of the last run, the checks
+ * against a library are serialized on the library lock.
+ * </p>
+ * <p>
+ * The evaluated scope is not saved across processes. Restoring the scope of
+ * JSHint 2.13.1 serialized with Rhino's <code>ScriptableOutputStream</code>
+ * (3 MB when interpreted) takes 450 to 900 ms, more than evaluating the
+ * library again (330 to 450 ms). A compiled scope cannot be restored at all,
+ * because its functions are instances of classes generated in the process
+ * that saved it.
+ * </p>
+ */
+public final class JSHintLibrary {
+
+	/*
+	 * the default libraries, loaded on first use
+	 */
+	private static final Map<ExecutionMode, JSHintLibrary> DEFAULT_LIBRARIES = new EnumMap<>(
+			ExecutionMode.class);
+
+	/**
+	 * Returns the shared built-in JSHint library, compiled to Java bytecode.
+	 * The library is loaded on the first call.
+	 *
+	 * @return the default library
+	 * @throws IOException
+	 *             if the library cannot be read or evaluated.
+	 * @see JSHint#getDefaultLibraryVersion()
+	 */
+	public static JSHintLibrary getDefault() throws IOException {
+		return getDefault(ExecutionMode.COMPILED);
+	}
+
+	/**
+	 * Returns the shared built-in JSHint library for the given execution mode.
+	 * The library is loaded on the first call.
+	 *
+	 * @param mode
+	 *            the execution mode, must not be null
+	 * @return the default library
+	 * @throws IOException
+	 *             if the library cannot be read or evaluated.
+	 * @see JSHint#getDefaultLibraryVersion()
+	 */
+	public static synchronized JSHintLibrary getDefault(
+			final ExecutionMode mode) throws IOException {
+		Objects.requireNonNull(mode, "The 'mode' parameter is null.");
+		JSHintLibrary library = DEFAULT_LIBRARIES.get(mode);
+		if (library == null) {
+			final String source;
+			try (final Reader reader = getJsHintReader()) {
+				source = readSource(reader);
+			}
+			final String hash = ScriptCache.hash(source);
+			Script script = null;
+			if (mode == ExecutionMode.COMPILED) {
+				script = getPrecompiledScript();
+			}
+			if (script == null) {
+				script = compile(source, hash, mode);
+			}
+			library = new JSHintLibrary(script, hash, mode);
+			DEFAULT_LIBRARIES.put(mode, library);
+		}
+		return library;
+	}
+
+	/**
+	 * Returns whether the classes compiled from the given library are stored
+	 * in the cache directory, so loading it in the compiled mode does not
+	 * compile it.
+	 *
+	 * @param stream
+	 *            an input stream to read the JSHint library from, encoded in
+	 *            UTF-8
+	 * @return <code>true</code> if the classes are stored
+	 * @throws IOException
+	 *             if an I/O error occurs while reading from the input stream.
+	 * @see #setCacheDirectory(File)
+	 */
+	public static boolean isCached(final InputStream stream)
+			throws IOException {
+		try (final Reader reader = new InputStreamReader(stream,
+				StandardCharsets.UTF_8)) {
+			return ScriptCache.isStored(ScriptCache.hash(readSource(reader)));
+		}
+	}
+
+	/**
+	 * Returns whether the built-in library has been compiled at build time, so
+	 * loading it in the compiled mode does not compile it.
+	 *
+	 * @return <code>true</code> if the compiled classes are available
+	 */
+	public static boolean isDefaultPrecompiled() {
+		return LibraryCompiler.isObservingInstructions(
+				JSHintLibrary.class.getClassLoader(),
+				getPrecompiledClassName());
+	}
+
+	/**
+	 * Loads a custom JSHint library. The input stream must provide the contents
+	 * of the file <code>jshint.js</code> found in the JSHint distribution,
+	 * encoded in UTF-8.
+	 *
+	 * @param stream
+	 *            an input stream to load the the JSHint library from.
+	 * @return the loaded library
+	 * @throws IOException
+	 *             if an I/O error occurs while reading from the input stream.
+	 * @throws IllegalArgumentException
+	 *             if the given input is not a proper JSHint library file.
+	 */
+	public static JSHintLibrary load(final InputStream stream)
+			throws IOException {
+		return load(stream, ExecutionMode.COMPILED);
+	}
+
+	/**
+	 * Loads a custom JSHint library for the given execution mode. The input
+	 * stream must provide the contents of the file <code>jshint.js</code>
+	 * found in the JSHint distribution, encoded in UTF-8.
+	 *
+	 * @param stream
+	 *            an input stream to load the the JSHint library from.
+	 * @param mode
+	 *            the execution mode, must not be null
+	 * @return the loaded library
+	 * @throws IOException
+	 *             if an I/O error occurs while reading from the input stream.
+	 * @throws IllegalArgumentException
+	 *             if the given input is not a proper JSHint library file.
+	 */
+	public static JSHintLibrary load(final InputStream stream,
+			final ExecutionMode mode) throws IOException {
+		try (final Reader reader = new InputStreamReader(stream,
+				StandardCharsets.UTF_8)) {
+			return load(reader, mode);
+		}
+	}
+
+	/**
+	 * Loads a custom JSHint library from the given reader.
+	 *
+	 * @param reader
+	 *            the reader to load the the JSHint library from.
+	 * @return the loaded library
+	 * @throws IOException
+	 *             if an I/O error occurs while reading.
+	 * @throws IllegalArgumentException
+	 *             if the given input is not a proper JSHint library file.
+	 */
+	public static JSHintLibrary load(final Reader reader) throws IOException {
+		return load(reader, ExecutionMode.COMPILED);
+	}
+
+	/**
+	 * Loads a custom JSHint library for the given execution mode from the
+	 * given reader.
+	 *
+	 * @param reader
+	 *            the reader to load the the JSHint library from.
+	 * @param mode
+	 *            the execution mode, must not be null
+	 * @return the loaded library
+	 * @throws IOException
+	 *             if an I/O error occurs while reading.
+	 * @throws IllegalArgumentException
+	 *             if the given input is not a proper JSHint library file.
+	 */
+	public static JSHintLibrary load(final Reader reader,
+			final ExecutionMode mode) throws IOException {
+		Objects.requireNonNull(mode, "The 'mode' parameter is null.");
+		final String source = readSource(reader);
+		final String hash = ScriptCache.hash(source);
+		return new JSHintLibrary(compile(source, hash, mode), hash, mode);
+	}
+
+	/**
+	 * Sets the directory used to store the classes compiled from custom
+	 * libraries across processes. Entries are keyed by the SHA-256 hash of the
+	 * library and the Rhino version. Interpreted libraries are not stored.
+	 *
+	 * @param directory
+	 *            the cache directory or <code>null</code> to disable the
+	 *            persistent cache
+	 */
+	public static void setCacheDirectory(final File directory) {
+		ScriptCache.setDirectory(directory);
+	}
+
+	private static Script compile(final String source, final String hash,
+			final ExecutionMode mode) throws IOException {
+		final Context context = JSHintContextFactory.getDefault()
+				.enterThreadContext();
+		// the context is reused by the next calls on this thread
+		final int level = context.getOptimizationLevel();
+		try {
+			context.setOptimizationLevel(mode.getOptimizationLevel());
+			return ScriptCache.getScript(context, source, hash);
+		} catch (final RhinoException e) {
+			throw new IOException("Could not compile JavaScript input.", e);
+		} finally {
+			context.setOptimizationLevel(level);
+			Context.exit();
+		}
+	}
+
+	private static String createShimCode() {
+		// Create shims to prevent problems with JSHint accessing
+		// objects that are not available in Rhino, e.g.
+		// https://github.com/jshint/jshint/issues/1038
+		return "console = {" //
+				+ "log:function(){}," //
+				+ "error:function(){}," //
+				+ "trace:function(){}" //
+				+ "};" //
+				+ "window = {};" //
+				+ "options = {};" //
+				+ "global = this;";
+	}
+
+	private static Function findJSHintFunction(final ScriptableObject scope)
+			throws IllegalArgumentException {
+		if (!ScriptableObject.hasProperty(scope, "JSHINT")) {
+			throw new IllegalArgumentException(
+					"Global JSHINT function missing in input");
+		}
+
+		final Object object = scope.get("JSHINT", scope);
+		if (!(object instanceof Function)) {
+			throw new IllegalArgumentException(
+					"Global JSHINT is not a function");
+		}
+		return (Function) object;
+	}
+
+	/**
+	 * Gets the script classes generated from the built-in library by
+	 * {@link LibraryCompiler} at build time.
+	 *
+	 * @return the script or <code>null</code> if the classes are not available
+	 *         (e.g. when running from the workspace) or were generated without
+	 *         the instruction count callbacks required by the check budget.
+	 */
+	private static Script getPrecompiledScript() {
+		final String name = getPrecompiledClassName();
+		final ClassLoader classLoader = JSHintLibrary.class.getClassLoader();
+		if (!LibraryCompiler.isObservingInstructions(classLoader, name)) {
+			return null;
+		}
+		try {
+			final Class<?> clazz = Class.forName(name, true, classLoader);
+			return (Script) clazz.getDeclaredConstructor().newInstance();
+		} catch (final ReflectiveOperationException | LinkageError
+				| ClassCastException e) {
+			return null;
+		}
+	}
+
+	private static String getPrecompiledClassName() {
+		return String.format("com.jshint.JSHintScript_%s",
+				JSHint.getDefaultLibraryVersion().replace('.', '_'));
+	}
+
+	private static BufferedReader getJsHintReader() {
+		// Include the default version in name to ensure the constant matches
+		// the actual version
+		final String name = String.format("com/jshint/jshint.%s.js",
+				JSHint.getDefaultLibraryVersion());
+
+		final ClassLoader classLoader = JSHintLibrary.class.getClassLoader();
+		final InputStream stream = classLoader.getResourceAsStream(name);
+		return new BufferedReader(
+				new InputStreamReader(stream, StandardCharsets.UTF_8));
+	}
+
+	private static String readSource(final Reader reader) throws IOException {
+		int count;
+		final char[] buffer = new char[8192];
+		final StringBuilder builder = new StringBuilder();
+		while ((count = reader.read(buffer)) != -1) {
+			builder.append(buffer, 0, count);
+		}
+		return builder.toString();
+	}
+
+	/*
+	 * the compiled library script
+	 */
+	private final Script script;
+
+	/*
+	 * the hash of the source code
+	 */
+	private final String hash;
+
+	/*
+	 * the execution mode
+	 */
+	private final ExecutionMode mode;
+
+	/*
+	 * the sealed library scope
+	 */
+	private final ScriptableObject scope;
+
+	/*
+	 * the global JSHINT function
+	 */
+	private final Function jshint;
+
+	/*
+	 * the lock serializing the calls to the JSHINT function
+	 */
+	private final Lock lock = new ReentrantLock();
+
+	private JSHintLibrary(final Script script, final String hash,
+			final ExecutionMode mode) throws IOException {
+		this.script = script;
+		this.hash = hash;
+		this.mode = mode;
+		final Context context = JSHintContextFactory.getDefault()
+				.enterThreadContext();
+		final int level = context.getOptimizationLevel();
+		try {
+			context.setOptimizationLevel(mode.getOptimizationLevel());
+			scope = context.initStandardObjects(null, true);
+			context.evaluateString(scope, createShimCode(), "shim", 1, null);
+			script.exec(context, scope);
+			jshint = findJSHintFunction(scope);
+			scope.sealObject();
+		} catch (final RhinoException e) {
+			throw new IOException("Could not evaluate JavaScript input.", e);
+		} finally {
+			context.setOptimizationLevel(level);
+			Context.exit();
+		}
+	}
+
+	/**
+	 * Evaluates the script of this library into a new, independent
+	 * scope. The returned library does not share any state with this one, so
+	 * checks against both libraries can run concurrently.
+	 *
+	 * @return the new library
+	 * @throws IOException
+	 *             if the library cannot be evaluated.
+	 */
+	public JSHintLibrary newInstance() throws IOException {
+		return new JSHintLibrary(script, hash, mode);
+	}
+
+	/**
+	 * Returns the SHA-256 hash of the library source code.
+	 *
+	 * @return the hash as hexadecimal string
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	/**
+	 * Returns the execution mode of this library.
+	 *
+	 * @return the execution mode
+	 */
+	public ExecutionMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Creates a new scope whose prototype is the shared library scope.
+	 *
+	 * @param context
+	 *            the current context
+	 * @return the child scope
+	 */
+	Scriptable createScope(final Context context) {
+		final Scriptable child = context.newObject(scope);
+		child.setPrototype(scope);
+		child.setParentScope(null);
+		return child;
+	}
+
+	/**
+	 * Gets the lock to hold while calling the global JSHINT function.
+	 *
+	 * @return the lock
+	 */
+	Lock getLock() {
+		return lock;
+	}
+
+	/**
+	 * Gets the global JSHINT function.
+	 *
+	 * @return the function
+	 */
+	Function getFunction() {
+		return jshint;
+	}
+}
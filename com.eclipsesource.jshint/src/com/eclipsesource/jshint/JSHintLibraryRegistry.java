@@ -0,0 +1,387 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A registry of JSHint libraries identified by a name, so that several
+ * library versions can be used side by side.
+ * <p>
+ * The built-in library is always registered as {@link #DEFAULT_ID}. Other
+ * libraries are registered from a file or from a resource URL and are loaded
+ * on first use, once per execution mode. Libraries with the same source code
+ * are loaded only once, even if registered under different identifiers. A
+ * file library is reloaded when the file changes.
+ * </p>
+ * <p>
+ * The returned libraries are shared: each {@link JSHint} loading one of them
+ * only creates a child scope. Instances of this class are thread-safe. A
+ * library is loaded outside of the registry lock, and concurrent requests for
+ * the same library wait for the same load.
+ * </p>
+ *
+ * @see JSHint#load(JSHintLibrary)
+ */
+public final class JSHintLibraryRegistry {
+
+	/**
+	 * The identifier of the built-in library.
+	 */
+	public static final String DEFAULT_ID = "default";
+
+	/*
+	 * the shared registry
+	 */
+	private static final JSHintLibraryRegistry DEFAULT = new JSHintLibraryRegistry();
+
+	/**
+	 * Returns the shared registry.
+	 *
+	 * @return the registry
+	 */
+	public static JSHintLibraryRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * The source of a registered library.
+	 */
+	private abstract static class Source {
+
+		/**
+		 * Gets the location of the source code.
+		 */
+		abstract String getLocation();
+
+		/**
+		 * Gets a value that changes when the source code changes.
+		 */
+		abstract String getStamp();
+
+		abstract InputStream open() throws IOException;
+
+		String read() throws IOException {
+			try (Reader reader = new InputStreamReader(open(),
+					StandardCharsets.UTF_8)) {
+				final char[] buffer = new char[8192];
+				final StringBuilder builder = new StringBuilder();
+				int count;
+				while ((count = reader.read(buffer)) != -1) {
+					builder.append(buffer, 0, count);
+				}
+				return builder.toString();
+			}
+		}
+	}
+
+	private static final class FileSource extends Source {
+
+		private final File file;
+
+		FileSource(final File file) {
+			this.file = file;
+		}
+
+		@Override
+		String getLocation() {
+			return file.getAbsolutePath();
+		}
+
+		@Override
+		String getStamp() {
+			return file.lastModified() + ":" + file.length();
+		}
+
+		@Override
+		InputStream open() throws IOException {
+			return new FileInputStream(file);
+		}
+	}
+
+	private static final class UrlSource extends Source {
+
+		private final URL url;
+
+		UrlSource(final URL url) {
+			this.url = url;
+		}
+
+		@Override
+		String getLocation() {
+			return url.toExternalForm();
+		}
+
+		@Override
+		String getStamp() {
+			return "";
+		}
+
+		@Override
+		InputStream open() throws IOException {
+			return url.openStream();
+		}
+	}
+
+	/**
+	 * A loaded or loading library and the stamp of its source.
+	 */
+	private static final class Entry {
+
+		final String stamp;
+
+		final CompletableFuture<JSHintLibrary> library = new CompletableFuture<>();
+
+		Entry(final String stamp) {
+			this.stamp = stamp;
+		}
+
+		/**
+		 * Waits for the library to be loaded.
+		 */
+		JSHintLibrary await() throws IOException {
+			try {
+				return library.join();
+			} catch (final CompletionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw e;
+			}
+		}
+
+		/**
+		 * Gets the library if loaded successfully.
+		 */
+		JSHintLibrary getLoaded() {
+			return library.isDone() && !library.isCompletedExceptionally()
+					? library.join()
+					: null;
+		}
+	}
+
+	/*
+	 * the registered sources by identifier
+	 */
+	private final Map<String, Source> sources = new LinkedHashMap<>();
+
+	/*
+	 * the loaded or loading libraries by identifier and mode
+	 */
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	/**
+	 * Creates a new registry containing the built-in library only.
+	 */
+	public JSHintLibraryRegistry() {
+		// the built-in library has no source
+	}
+
+	/**
+	 * Returns the identifiers of the registered libraries.
+	 *
+	 * @return the identifiers, starting with {@link #DEFAULT_ID}
+	 */
+	public synchronized Set<String> getIds() {
+		final Set<String> ids = new LinkedHashSet<>();
+		ids.add(DEFAULT_ID);
+		ids.addAll(sources.keySet());
+		return Collections.unmodifiableSet(ids);
+	}
+
+	/**
+	 * Gets the compiled library registered with the given identifier.
+	 *
+	 * @param id
+	 *            the library identifier, must not be null
+	 * @return the library
+	 * @throws IOException
+	 *             if the library cannot be loaded.
+	 * @throws IllegalArgumentException
+	 *             if no library is registered with the given identifier or
+	 *             if the source is not a proper JSHint library.
+	 */
+	public JSHintLibrary getLibrary(final String id) throws IOException {
+		return getLibrary(id, ExecutionMode.COMPILED);
+	}
+
+	/**
+	 * Gets the library registered with the given identifier for the given
+	 * execution mode.
+	 *
+	 * @param id
+	 *            the library identifier, must not be null
+	 * @param mode
+	 *            the execution mode, must not be null
+	 * @return the library
+	 * @throws IOException
+	 *             if the library cannot be loaded.
+	 * @throws IllegalArgumentException
+	 *             if no library is registered with the given identifier or
+	 *             if the source is not a proper JSHint library.
+	 */
+	public JSHintLibrary getLibrary(final String id,
+			final ExecutionMode mode) throws IOException {
+		Objects.requireNonNull(id, "The 'id' parameter is null.");
+		Objects.requireNonNull(mode, "The 'mode' parameter is null.");
+		if (DEFAULT_ID.equals(id)) {
+			return JSHintLibrary.getDefault(mode);
+		}
+		final String key = id + '/' + mode;
+		final Source source;
+		Entry entry;
+		boolean loading = false;
+		synchronized (this) {
+			source = sources.get(id);
+			if (source == null) {
+				throw new IllegalArgumentException(
+						"No JSHint library registered as: " + id);
+			}
+			final String stamp = source.getStamp();
+			entry = entries.get(key);
+			if (entry == null || !entry.stamp.equals(stamp)) {
+				entry = new Entry(stamp);
+				entries.put(key, entry);
+				loading = true;
+			}
+		}
+
+		// load outside of the lock, this can take a few seconds
+		if (loading) {
+			try {
+				entry.library.complete(load(source.read(), mode));
+			} catch (final IOException | RuntimeException | Error e) {
+				// let the next request try again
+				synchronized (this) {
+					entries.remove(key, entry);
+				}
+				entry.library.completeExceptionally(e);
+			}
+		}
+		return entry.await();
+	}
+
+	/**
+	 * Returns whether a library is registered with the given identifier.
+	 *
+	 * @param id
+	 *            the library identifier
+	 * @return <code>true</code> if registered
+	 */
+	public synchronized boolean isRegistered(final String id) {
+		return DEFAULT_ID.equals(id) || sources.containsKey(id);
+	}
+
+	/**
+	 * Registers the library contained in the given file. The file is read on
+	 * first use and read again when it has been modified. Registering the same
+	 * file again keeps the loaded library.
+	 *
+	 * @param id
+	 *            the library identifier, must not be null
+	 * @param file
+	 *            the <code>jshint.js</code> file, must not be null
+	 */
+	public void register(final String id, final File file) {
+		Objects.requireNonNull(file, "The 'file' parameter is null.");
+		register(id, new FileSource(file));
+	}
+
+	/**
+	 * Registers the library available at the given URL, e.g. a library
+	 * bundled as a resource. The resource is read on first use only.
+	 * Registering the same URL again keeps the loaded library.
+	 *
+	 * @param id
+	 *            the library identifier, must not be null
+	 * @param url
+	 *            the URL of the <code>jshint.js</code> file, must not be null
+	 */
+	public void register(final String id, final URL url) {
+		Objects.requireNonNull(url, "The 'url' parameter is null.");
+		register(id, new UrlSource(url));
+	}
+
+	/**
+	 * Removes the library registered with the given identifier. The built-in
+	 * library cannot be removed.
+	 *
+	 * @param id
+	 *            the library identifier
+	 * @return <code>true</code> if the library was registered
+	 */
+	public synchronized boolean unregister(final String id) {
+		if (sources.remove(id) == null) {
+			return false;
+		}
+		for (final ExecutionMode mode : ExecutionMode.values()) {
+			entries.remove(id + '/' + mode);
+		}
+		return true;
+	}
+
+	private JSHintLibrary load(final String source, final ExecutionMode mode)
+			throws IOException {
+		// share the libraries loaded from the same code
+		final String hash = ScriptCache.hash(source);
+		synchronized (this) {
+			for (final Entry entry : entries.values()) {
+				final JSHintLibrary library = entry.getLoaded();
+				if (library != null && library.getHash().equals(hash)
+						&& library.getMode() == mode) {
+					return library;
+				}
+			}
+		}
+		return JSHintLibrary.load(new StringReader(source), mode);
+	}
+
+	private synchronized void register(final String id, final Source source) {
+		Objects.requireNonNull(id, "The 'id' parameter is null.");
+		if (DEFAULT_ID.equals(id)) {
+			throw new IllegalArgumentException(
+					"The built-in library cannot be replaced.");
+		}
+		final Source previous = sources.get(id);
+		if (previous != null && previous.getClass() == source.getClass()
+				&& previous.getLocation().equals(source.getLocation())) {
+			return;
+		}
+		sources.put(id, source);
+		for (final ExecutionMode mode : ExecutionMode.values()) {
+			entries.remove(id + '/' + mode);
+		}
+	}
+}
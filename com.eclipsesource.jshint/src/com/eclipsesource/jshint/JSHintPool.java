@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.eclipsesource.json.JsonObject;
+
+/**
+ * A bounded pool of configured JSHint checkers.
+ * <p>
+ * Checkers are keyed by library and configuration. Every pooled checker uses
+ * its own instance of the library (see {@link JSHintLibrary#newInstance()}),
+ * so borrowed checkers can be used concurrently from different threads. A
+ * borrowed checker must be used by one thread at a time and must be given back
+ * with {@link #release(JSHint)}. It must not be loaded with another library; a
+ * checker whose configuration, code filter, limits or reset mode have been
+ * changed while borrowed is discarded on release instead of being pooled.
+ * </p>
+ * <p>
+ * The pool uses explicit locks instead of monitors, so threads waiting for a
+ * checker do not pin the carrier thread when running on virtual threads.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ *
+ * <pre>
+ * JSHintPool pool = new JSHintPool(Runtime.getRuntime().availableProcessors());
+ * pool.check(library, configuration, text, handler);
+ * </pre>
+ */
+public class JSHintPool {
+
+	/*
+	 * the pool key
+	 */
+	private static final class Key {
+
+		private final JSHintLibrary library;
+		private final String configuration;
+
+		Key(final JSHintLibrary library, final JsonObject configuration) {
+			this.library = library;
+			this.configuration = configuration.toString();
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return library == other.library
+					&& configuration.equals(other.configuration);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(library)
+					+ configuration.hashCode();
+		}
+	}
+
+	/*
+	 * a borrowed checker
+	 */
+	private static final class Loan {
+
+		private final Key key;
+		private final CodeFilter codeFilter;
+
+		Loan(final Key key, final JSHint jshint) {
+			this.key = key;
+			codeFilter = jshint.getCodeFilter();
+		}
+
+		boolean isUnchanged(final JSHint jshint) {
+			final JsonObject configuration = jshint.getConfiguration();
+			return configuration != null
+					&& key.configuration.equals(configuration.toString())
+					&& codeFilter == jshint.getCodeFilter()
+					&& jshint.getTimeout() == 0
+					&& jshint.getMaxInstructions() == 0
+					&& jshint.isResetAfterCheck();
+		}
+	}
+
+	/*
+	 * the maximum number of checkers
+	 */
+	private final int maxSize;
+
+	/*
+	 * the lock guarding the pool state
+	 */
+	private final Lock lock = new ReentrantLock();
+
+	/*
+	 * signaled when a checker is released or discarded
+	 */
+	private final Condition available = lock.newCondition();
+
+	/*
+	 * the idle checkers by key
+	 */
+	private final Map<Key, Deque<JSHint>> idle = new HashMap<>();
+
+	/*
+	 * the borrowed checkers
+	 */
+	private final Map<JSHint, Loan> borrowed = new IdentityHashMap<>();
+
+	/*
+	 * the number of created checkers (idle, borrowed or being created)
+	 */
+	private int size;
+
+	/**
+	 * Creates a new pool.
+	 *
+	 * @param maxSize
+	 *            the maximum number of checkers held by this pool, must be
+	 *            greater than 0
+	 */
+	public JSHintPool(final int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException(
+					"The 'maxSize' parameter must be greater than 0.");
+		}
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Borrows a checker for the given library and configuration. If no idle
+	 * checker is available and the pool is full, idle checkers of other keys
+	 * are discarded; if none exists, this method waits until a checker is
+	 * released. A checker reconfigured while borrowed is not pooled again, see
+	 * {@link #release(JSHint)}.
+	 *
+	 * @param library
+	 *            the library to use, must not be null
+	 * @param configuration
+	 *            the configuration to use, must not be null
+	 * @return the checker
+	 * @throws IOException
+	 *             if the library cannot be evaluated for a new checker.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting.
+	 */
+	public JSHint borrow(final JSHintLibrary library,
+			final JsonObject configuration)
+			throws IOException, InterruptedException {
+		Objects.requireNonNull(library, "The 'library' parameter is null.");
+		Objects.requireNonNull(configuration,
+				"The 'configuration' parameter is null.");
+		final Key key = new Key(library, configuration);
+		lock.lockInterruptibly();
+		try {
+			for (;;) {
+				final Deque<JSHint> checkers = idle.get(key);
+				if (checkers != null && !checkers.isEmpty()) {
+					final JSHint jshint = checkers.pop();
+					borrowed.put(jshint, new Loan(key, jshint));
+					return jshint;
+				}
+				if (size < maxSize || evictIdle()) {
+					size++;
+					break;
+				}
+				available.await();
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		// create outside of the lock, loading is expensive
+		JSHint jshint = null;
+		try {
+			jshint = createJSHint(library, configuration);
+		} finally {
+			lock.lock();
+			try {
+				if (jshint != null) {
+					borrowed.put(jshint, new Loan(key, jshint));
+				} else {
+					size--;
+					available.signalAll();
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return jshint;
+	}
+
+	/**
+	 * Checks the given text with a borrowed checker and releases it.
+	 *
+	 * @param library
+	 *            the library to use, must not be null
+	 * @param configuration
+	 *            the configuration to use, must not be null
+	 * @param text
+	 *            the text to check, must not be null
+	 * @param handler
+	 *            the handler to report problems to or <code>null</code>
+	 * @return <code>true</code> if no problems have been found, otherwise
+	 *         <code>false</code>
+	 * @throws IOException
+	 *             if the library cannot be evaluated for a new checker.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting.
+	 */
+	public boolean check(final JSHintLibrary library,
+			final JsonObject configuration, final Text text,
+			final ProblemHandler handler)
+			throws IOException, InterruptedException {
+		final JSHint jshint = borrow(library, configuration);
+		try {
+			return jshint.check(text, handler);
+		} finally {
+			release(jshint);
+		}
+	}
+
+	/**
+	 * Discards all idle checkers.
+	 */
+	public void clear() {
+		lock.lock();
+		try {
+			for (final Deque<JSHint> checkers : idle.values()) {
+				size -= checkers.size();
+			}
+			idle.clear();
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gives back a checker obtained from
+	 * {@link #borrow(JSHintLibrary, JsonObject)}. The checker is discarded if
+	 * it has been reconfigured since it was borrowed, so that it is never
+	 * handed out for a configuration it does not apply.
+	 *
+	 * @param jshint
+	 *            the checker to release
+	 * @throws IllegalArgumentException
+	 *             if the checker was not borrowed from this pool.
+	 */
+	public void release(final JSHint jshint) {
+		lock.lock();
+		try {
+			final Loan loan = borrowed.remove(jshint);
+			if (loan == null) {
+				throw new IllegalArgumentException(
+						"The checker was not borrowed from this pool.");
+			}
+			if (loan.isUnchanged(jshint)) {
+				idle.computeIfAbsent(loan.key, k -> new ArrayDeque<>())
+						.push(jshint);
+			} else {
+				size--;
+			}
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private JSHint createJSHint(final JSHintLibrary library,
+			final JsonObject configuration) throws IOException {
+		final JSHint jshint = new JSHint();
+		jshint.load(library.newInstance());
+		jshint.configure(configuration);
+		// idle checkers must not retain the last input
+		jshint.setResetAfterCheck(true);
+		return jshint;
+	}
+
+	private boolean evictIdle() {
+		final Iterator<Deque<JSHint>> iterator = idle.values().iterator();
+		while (iterator.hasNext()) {
+			final Deque<JSHint> checkers = iterator.next();
+			if (!checkers.isEmpty()) {
+				checkers.removeLast();
+				size--;
+				if (checkers.isEmpty()) {
+					iterator.remove();
+				}
+				return true;
+			}
+			iterator.remove();
+		}
+		return false;
+	}
+}
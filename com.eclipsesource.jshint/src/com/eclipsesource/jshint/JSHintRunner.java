@@ -16,9 +16,11 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import com.eclipsesource.json.JsonObject;
 
@@ -34,6 +36,36 @@ public class JSHintRunner {
 	 */
 	private static final String PARAM_CUSTOM_JSHINT = "--custom";
 
+	/**
+	 * The compiled classes cache directory parameter name.
+	 */
+	private static final String PARAM_CACHE = "--cache";
+
+	/**
+	 * The check timeout parameter name.
+	 */
+	private static final String PARAM_TIMEOUT = "--timeout";
+
+	/**
+	 * The execution mode parameter name.
+	 */
+	private static final String PARAM_MODE = "--mode";
+
+	/**
+	 * The problem codes filter parameter name.
+	 */
+	private static final String PARAM_CODES = "--codes";
+
+	/**
+	 * The number of worker processes parameter name.
+	 */
+	private static final String PARAM_WORKERS = "--workers";
+
+	/**
+	 * The automatic execution mode parameter value.
+	 */
+	private static final String MODE_AUTO = "auto";
+
 	/*
 	 * the list of files to verify
 	 */
@@ -49,6 +81,31 @@ public class JSHintRunner {
 	 */
 	private File library;
 
+	/*
+	 * the compiled classes cache directory or null
+	 */
+	private File cacheDirectory;
+
+	/*
+	 * the execution mode or null to select it from the number of files
+	 */
+	private ExecutionMode mode = ExecutionMode.COMPILED;
+
+	/*
+	 * the check timeout in milliseconds
+	 */
+	private long timeout;
+
+	/*
+	 * the problem codes filter or null to use the configured one
+	 */
+	private CodeFilter codeFilter;
+
+	/*
+	 * the number of worker processes or 0 to check in this process
+	 */
+	private int workers;
+
 	/*
 	 * the JSHint instance
 	 */
@@ -59,9 +116,13 @@ public class JSHintRunner {
 			readArgs(args);
 			ensureCharset();
 			ensureInputFiles();
-			loadJSHint();
-			configureJSHint();
-			processFiles();
+			if (workers > 0) {
+				processFilesInWorkers();
+			} else {
+				loadJSHint();
+				configureJSHint();
+				processFiles();
+			}
 		} catch (final Exception e) {
 			System.out.println(e.getMessage());
 			System.out.println();
@@ -69,6 +130,14 @@ public class JSHintRunner {
 					"Usage: JSHint [ <options> ] <input-file> [ <input-file> ... ]");
 			System.out.println("Options: --custom <custom-jshint-file>");
 			System.out.println("         --charset <charset>");
+			System.out.println("         --cache <cache-directory>");
+			System.out.println("         --timeout <milliseconds>");
+			System.out.println(
+					"         --mode <interpreted | compiled | auto>");
+			System.out.println(
+					"         --codes <code>[,<code>...] (-<code> to exclude)");
+			System.out.println(
+					"         --workers <count> (0 to check in this process)");
 		}
 	}
 
@@ -85,10 +154,51 @@ public class JSHintRunner {
 	}
 
 	private void configureJSHint() {
+		jshint.configure(createConfiguration());
+		jshint.setTimeout(timeout);
+		if (codeFilter != null) {
+			jshint.setCodeFilter(codeFilter);
+		}
+	}
+
+	private BatchProblemHandler createBatchHandler() {
+		final DebugProblemHandler handler = new DebugProblemHandler();
+		return new BatchProblemHandler() {
+
+			@Override
+			public void handleBudgetExceeded(final int index, final Text text,
+					final JSHintBudgetException e) {
+				System.out.format("File: %s: %s%n", files.get(index),
+						e.getMessage());
+			}
+
+			@Override
+			public void handleCheckFailed(final int index, final Text text,
+					final JSHIntException e) {
+				System.out.format("File: %s: %s%n", files.get(index),
+						e.getMessage());
+			}
+
+			@Override
+			public void handleProblem(final int index, final Text text,
+					final IProblem problem) {
+				final File file = files.get(index);
+				if (!file.equals(handler.getFile())) {
+					handler.setFile(file);
+				}
+				handler.handleProblem(problem);
+			}
+		};
+	}
+
+	private JsonObject createConfiguration() {
 		final JsonObject configuration = new JsonObject();
 		configuration.add("undef", true);
-		jshint.configure(configuration);
+		return configuration;
+	}
 
+	private Iterable<Text> createTexts() {
+		return () -> files.stream().map(this::readText).iterator();
 	}
 
 	private void ensureCharset() {
@@ -103,12 +213,32 @@ public class JSHintRunner {
 		}
 	}
 
+	/**
+	 * Returns whether the library is available compiled, so the compiled mode
+	 * costs no compilation.
+	 */
+	private boolean isCompiledAvailable() {
+		if (library == null) {
+			return JSHintLibrary.isDefaultPrecompiled();
+		}
+		try (FileInputStream stream = new FileInputStream(library)) {
+			return JSHintLibrary.isCached(stream);
+		} catch (final IOException e) {
+			// reported when the library is loaded
+			return false;
+		}
+	}
+
 	private void loadJSHint() {
 		jshint = new JSHint();
+		if (mode == null) {
+			mode = ExecutionMode.forExpectedChecks(files.size(),
+					isCompiledAvailable());
+		}
 
 		if (library != null) {
 			try (FileInputStream stream = new FileInputStream(library)) {
-				jshint.load(stream);
+				jshint.load(JSHintLibrary.load(stream, mode));
 			} catch (final IOException e) {
 				final String msg = String
 						.format("Failed to load JSHint library: %s.", library);
@@ -116,7 +246,7 @@ public class JSHintRunner {
 			}
 		} else {
 			try {
-				jshint.load();
+				jshint.load(JSHintLibrary.getDefault(mode));
 			} catch (final IOException e) {
 				final String msg = "Failed to load the default JSHint library.";
 				throw new IllegalArgumentException(msg, e);
@@ -125,11 +255,33 @@ public class JSHintRunner {
 	}
 
 	private void processFiles() throws IOException {
-		final DebugProblemHandler handler = new DebugProblemHandler();
-		for (final File file : files) {
-			final String code = readContent(file);
-			handler.setFile(file);
-			jshint.check(code, handler);
+		try {
+			jshint.checkAll(createTexts(), createBatchHandler());
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private void processFilesInWorkers()
+			throws IOException, InterruptedException {
+		// more workers than files would stay idle
+		final int size = Math.min(workers, files.size());
+		try (JSHintWorkerPool pool = new JSHintWorkerPool(size)) {
+			pool.setLibrary(library);
+			pool.setCacheDirectory(cacheDirectory);
+			// each worker loads the library and checks its share of files
+			pool.setMode(mode != null ? mode
+					: ExecutionMode.forExpectedChecks(
+							Math.max(1, files.size() / size),
+							isCompiledAvailable()));
+			pool.configure(createConfiguration());
+			pool.setTimeout(timeout);
+			if (codeFilter != null) {
+				pool.setCodeFilter(codeFilter);
+			}
+			pool.checkAll(createTexts(), createBatchHandler());
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
 		}
 	}
 
@@ -142,8 +294,23 @@ public class JSHintRunner {
 				setCharset(arg);
 			} else if (PARAM_CUSTOM_JSHINT.equalsIgnoreCase(lastArg)) {
 				setLibrary(arg);
+			} else if (PARAM_CACHE.equalsIgnoreCase(lastArg)) {
+				setCacheDirectory(arg);
+			} else if (PARAM_TIMEOUT.equalsIgnoreCase(lastArg)) {
+				setTimeout(arg);
+			} else if (PARAM_MODE.equalsIgnoreCase(lastArg)) {
+				setMode(arg);
+			} else if (PARAM_CODES.equalsIgnoreCase(lastArg)) {
+				codeFilter = CodeFilter.parse(arg);
+			} else if (PARAM_WORKERS.equalsIgnoreCase(lastArg)) {
+				setWorkers(arg);
 			} else if (!PARAM_CHARSET.equalsIgnoreCase(arg)
-					&& !PARAM_CUSTOM_JSHINT.equalsIgnoreCase(arg)) {
+					&& !PARAM_CUSTOM_JSHINT.equalsIgnoreCase(arg)
+					&& !PARAM_CACHE.equalsIgnoreCase(arg)
+					&& !PARAM_TIMEOUT.equalsIgnoreCase(arg)
+					&& !PARAM_MODE.equalsIgnoreCase(arg)
+					&& !PARAM_CODES.equalsIgnoreCase(arg)
+					&& !PARAM_WORKERS.equalsIgnoreCase(arg)) {
 				final File file = new File(arg);
 				files.add(checkFile(file));
 			}
@@ -167,6 +334,19 @@ public class JSHintRunner {
 		}
 	}
 
+	private Text readText(final File file) {
+		try {
+			return new Text(readContent(file));
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void setCacheDirectory(final String name) {
+		cacheDirectory = new File(name);
+		JSHintLibrary.setCacheDirectory(cacheDirectory);
+	}
+
 	private void setCharset(final String name) {
 		try {
 			charset = Charset.forName(name);
@@ -180,4 +360,38 @@ public class JSHintRunner {
 	private void setLibrary(final String name) {
 		library = new File(name);
 	}
+
+	private void setMode(final String value) {
+		if (MODE_AUTO.equalsIgnoreCase(value)) {
+			mode = null;
+			return;
+		}
+		try {
+			mode = ExecutionMode.valueOf(value.toUpperCase(Locale.ROOT));
+		} catch (final IllegalArgumentException e) {
+			final String msg = String.format("Invalid mode: %s.", value);
+			throw new IllegalArgumentException(msg, e);
+		}
+	}
+
+	private void setTimeout(final String value) {
+		try {
+			timeout = Long.parseLong(value);
+		} catch (final NumberFormatException e) {
+			final String msg = String.format("Invalid timeout: %s.", value);
+			throw new IllegalArgumentException(msg, e);
+		}
+	}
+
+	private void setWorkers(final String value) {
+		final String msg = String.format("Invalid workers: %s.", value);
+		try {
+			workers = Integer.parseInt(value);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException(msg, e);
+		}
+		if (workers < 0) {
+			throw new IllegalArgumentException(msg);
+		}
+	}
 }
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+import com.eclipsesource.json.JsonObject;
+
+/**
+ * Asynchronous facade to check texts with JSHint.
+ * <p>
+ * Checks run on the given executor with checkers borrowed from a
+ * {@link JSHintPool}, so each checker is confined to one thread at a time.
+ * </p>
+ * <p>
+ * Identical requests are checked only once while in progress: a request for
+ * the same content, configuration and library as a running check, from this
+ * or any other service, shares the result of that check instead of starting
+ * a new one.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ *
+ * <pre>
+ * try (JSHintService service = new JSHintService(JSHintLibrary.getDefault())) {
+ * 	service.checkAsync(text, configuration).thenAccept(problems -&gt; { ... });
+ * }
+ * </pre>
+ */
+public class JSHintService implements AutoCloseable {
+
+	/*
+	 * the checks in progress, shared by all the services
+	 */
+	private static final ConcurrentMap<String, CompletableFuture<List<IProblem>>> CHECKS = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the default executor, a fixed pool of daemon threads, one per
+	 * available processor.
+	 *
+	 * @return the executor
+	 */
+	public static ExecutorService newDefaultExecutor() {
+		final ThreadFactory factory = runnable -> {
+			final Thread thread = new Thread(runnable, "JSHint checker");
+			thread.setDaemon(true);
+			return thread;
+		};
+		return Executors.newFixedThreadPool(getProcessors(), factory);
+	}
+
+	/**
+	 * Creates an executor starting a new virtual thread for each task, to
+	 * pass to {@link #JSHintService(JSHintLibrary, JSHintPool, Executor)}.
+	 * <p>
+	 * The checks gain little from virtual threads: they are CPU bound, each
+	 * thread creates its own Rhino context, and the synchronized library
+	 * loading pins the carrier threads. Only use it when the callers already
+	 * run on virtual threads.
+	 * </p>
+	 *
+	 * @return the executor
+	 * @throws UnsupportedOperationException
+	 *             if virtual threads are not available (before Java 21).
+	 */
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			// Java 21+, looked up by reflection to keep the Java 8 baseline
+			final Method method = Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (final ReflectiveOperationException e) {
+			throw new UnsupportedOperationException(
+					"Virtual threads are not available.", e);
+		}
+	}
+
+	private static int getProcessors() {
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Gets the key identifying the result of a check.
+	 */
+	private static String getKey(final JSHintLibrary library,
+			final JsonObject configuration, final Text text) {
+		return library.getHash() + '/' + library.getMode() + '/'
+				+ ScriptCache.hash(configuration.toString()) + '/'
+				+ ScriptCache.hash(text.getContent());
+	}
+
+	private final JSHintLibrary library;
+
+	private final JSHintPool pool;
+
+	private final Executor executor;
+
+	/*
+	 * the executor to shut down on close or null if not owned
+	 */
+	private final ExecutorService ownedExecutor;
+
+	/**
+	 * Creates a new service using one checker per available processor and the
+	 * default executor.
+	 *
+	 * @param library
+	 *            the library to use, must not be null
+	 * @see #newDefaultExecutor()
+	 */
+	public JSHintService(final JSHintLibrary library) {
+		this(library, new JSHintPool(getProcessors()), newDefaultExecutor(),
+				true);
+	}
+
+	/**
+	 * Creates a new service.
+	 *
+	 * @param library
+	 *            the library to use, must not be null
+	 * @param pool
+	 *            the pool to borrow checkers from, must not be null
+	 * @param executor
+	 *            the executor to run the checks, must not be null. The
+	 *            executor is not shut down when this service is closed.
+	 */
+	public JSHintService(final JSHintLibrary library, final JSHintPool pool,
+			final Executor executor) {
+		this(library, pool, executor, false);
+	}
+
+	private JSHintService(final JSHintLibrary library, final JSHintPool pool,
+			final Executor executor, final boolean owned) {
+		this.library = Objects.requireNonNull(library,
+				"The 'library' parameter is null.");
+		this.pool = Objects.requireNonNull(pool,
+				"The 'pool' parameter is null.");
+		this.executor = Objects.requireNonNull(executor,
+				"The 'executor' parameter is null.");
+		ownedExecutor = owned ? (ExecutorService) executor : null;
+	}
+
+	/**
+	 * Checks the given text asynchronously. If an identical check is in
+	 * progress, its result is shared.
+	 *
+	 * @param text
+	 *            the text to check, must not be null
+	 * @param configuration
+	 *            the configuration to use, must not be null
+	 * @return a future completed with the unmodifiable list of problems found,
+	 *         or completed exceptionally if the check fails
+	 */
+	public CompletableFuture<List<IProblem>> checkAsync(final Text text,
+			final JsonObject configuration) {
+		Objects.requireNonNull(text, "The 'text' parameter is null.");
+		Objects.requireNonNull(configuration,
+				"The 'configuration' parameter is null.");
+		final String key = getKey(library, configuration, text);
+		CompletableFuture<List<IProblem>> future = CHECKS.get(key);
+		if (future == null) {
+			final CompletableFuture<List<IProblem>> created = new CompletableFuture<>();
+			future = CHECKS.putIfAbsent(key, created);
+			if (future == null) {
+				future = created;
+				start(key, created, text, configuration);
+			}
+		}
+		// callers must not complete or cancel the shared future
+		return future.thenApply(Function.identity());
+	}
+
+	/**
+	 * Shuts down the default executor, if used, and discards the idle
+	 * checkers.
+	 */
+	@Override
+	public void close() {
+		if (ownedExecutor != null) {
+			ownedExecutor.shutdown();
+		}
+		pool.clear();
+	}
+
+	private List<IProblem> check(final Text text,
+			final JsonObject configuration) {
+		final List<IProblem> problems = new ArrayList<>();
+		try {
+			pool.check(library, configuration, text, problems::add);
+		} catch (final IOException e) {
+			throw new CompletionException(e);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CompletionException(e);
+		}
+		return Collections.unmodifiableList(problems);
+	}
+
+	private void start(final String key,
+			final CompletableFuture<List<IProblem>> future, final Text text,
+			final JsonObject configuration) {
+		final Runnable task = () -> {
+			try {
+				future.complete(check(text, configuration));
+			} catch (final RuntimeException | Error e) {
+				future.completeExceptionally(e);
+			} finally {
+				CHECKS.remove(key, future);
+			}
+		};
+		try {
+			executor.execute(task);
+		} catch (final RejectedExecutionException e) {
+			CHECKS.remove(key, future);
+			future.completeExceptionally(e);
+		}
+	}
+}
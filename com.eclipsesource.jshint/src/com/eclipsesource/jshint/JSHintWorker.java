@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.eclipsesource.jshint.JSHintEngine.Session;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * The main class of the worker processes started by a
+ * {@link JSHintWorkerPool}.
+ * <p>
+ * The worker reads one JSON request per line from the standard input and
+ * writes one JSON response per line to the standard output, until the input
+ * is closed. The requests are:
+ * </p>
+ *
+ * <pre>
+ * {"op":"configure","configuration":{...}}
+ * {"op":"check","code":"...","maxErrors":0,"timeout":0,"maxInstructions":0}
+ * {"op":"data"}
+ * {"op":"reset"}
+ * </pre>
+ * <p>
+ * A successful response contains <code>"ok":true</code>; the check response
+ * also contains the <code>result</code>, the <code>errors</code> as arrays of
+ * line, character, code and reason, and the <code>heap</code> used after the
+ * last garbage collection. A failed response contains <code>"ok":false</code>,
+ * the <code>error</code> message and whether the <code>budget</code> was
+ * exceeded.
+ * </p>
+ * <p>
+ * Arguments: <code>[--library &lt;jshint-file&gt;] [--mode
+ * &lt;interpreted | compiled&gt;] [--cache &lt;cache-directory&gt;]</code>
+ * </p>
+ */
+public final class JSHintWorker {
+
+	/**
+	 * The library parameter name.
+	 */
+	static final String PARAM_LIBRARY = "--library";
+
+	/**
+	 * The execution mode parameter name.
+	 */
+	static final String PARAM_MODE = "--mode";
+
+	/**
+	 * The compiled classes cache directory parameter name.
+	 */
+	static final String PARAM_CACHE = "--cache";
+
+	public static void main(final String[] args) throws IOException {
+		// keep the standard output for the responses
+		final PrintStream out = System.out;
+		System.setOut(System.err);
+
+		String library = null;
+		ExecutionMode mode = ExecutionMode.COMPILED;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (PARAM_LIBRARY.equals(args[i])) {
+				library = args[i + 1];
+			} else if (PARAM_MODE.equals(args[i])) {
+				mode = ExecutionMode
+						.valueOf(args[i + 1].toUpperCase(Locale.ROOT));
+			} else if (PARAM_CACHE.equals(args[i])) {
+				JSHintLibrary.setCacheDirectory(new File(args[i + 1]));
+			}
+		}
+
+		final JSHintLibrary jshintLibrary;
+		if (library != null) {
+			try (InputStream stream = new FileInputStream(library)) {
+				jshintLibrary = JSHintLibrary.load(stream, mode);
+			}
+		} else {
+			jshintLibrary = JSHintLibrary.getDefault(mode);
+		}
+
+		final JSHintWorker worker = new JSHintWorker(
+				new RhinoEngine(jshintLibrary));
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(System.in, StandardCharsets.UTF_8));
+				Writer writer = new BufferedWriter(new OutputStreamWriter(out,
+						StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				worker.process(line).writeTo(writer);
+				writer.write('\n');
+				writer.flush();
+			}
+		}
+	}
+
+	private static JsonObject createError(final String message,
+			final boolean budget) {
+		return new JsonObject() //
+				.add("ok", false) //
+				.add("error", message != null ? message : "") //
+				.add("budget", budget);
+	}
+
+	private static long getLong(final JsonObject object, final String name) {
+		final JsonValue value = object.get(name);
+		return value != null && value.isNumber() ? value.asLong() : 0;
+	}
+
+	/**
+	 * Gets the heap used after the last garbage collection, so the value
+	 * reflects the retained memory and not the garbage left by the checks.
+	 */
+	private static long getRetainedHeap() {
+		long used = 0;
+		for (final MemoryPoolMXBean pool : ManagementFactory
+				.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				final MemoryUsage usage = pool.getCollectionUsage();
+				if (usage != null) {
+					used += usage.getUsed();
+				}
+			}
+		}
+		return used;
+	}
+
+	private static String getString(final JsonObject object,
+			final String name) {
+		final JsonValue value = object.get(name);
+		return value != null && value.isString() ? value.asString() : "";
+	}
+
+	private final JSHintEngine engine;
+
+	private JSHintWorker(final JSHintEngine engine) {
+		this.engine = engine;
+	}
+
+	private JsonObject check(final JsonObject request) {
+		final String code = getString(request, "code");
+		final JsonArray errors = new JsonArray();
+		final boolean result;
+		try (Session session = engine.open()) {
+			result = session.check(code, (int) getLong(request, "maxErrors"),
+					getLong(request, "timeout"),
+					getLong(request, "maxInstructions"));
+			if (!result) {
+				session.extract((line, character, problemCode, reason) -> {
+					errors.add(new JsonArray().add(line).add(character)
+							.add(problemCode).add(reason));
+					return true;
+				}, CodeFilter.ALL);
+			}
+		}
+		return new JsonObject() //
+				.add("ok", true) //
+				.add("result", result) //
+				.add("errors", errors) //
+				.add("heap", getRetainedHeap());
+	}
+
+	private JsonObject process(final String line) {
+		try {
+			final JsonObject request = JsonObject.readFrom(line);
+			final String op = getString(request, "op");
+			switch (op) {
+			case "configure":
+				engine.configure(request.get("configuration").asObject());
+				return new JsonObject().add("ok", true);
+			case "check":
+				return check(request);
+			case "data":
+				try (Session session = engine.open()) {
+					return new JsonObject().add("ok", true).add("data",
+							session.getData());
+				}
+			case "reset":
+				try (Session session = engine.open()) {
+					session.reset();
+				}
+				return new JsonObject().add("ok", true);
+			default:
+				return createError("Unknown operation: " + op, false);
+			}
+		} catch (final JSHintBudgetException e) {
+			return createError(e.getMessage(), true);
+		} catch (final IOException | RuntimeException e) {
+			return createError(e.toString(), false);
+		}
+	}
+}
@@ -0,0 +1,484 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.mozilla.javascript.Context;
+
+import com.eclipsesource.json.JsonObject;
+
+/**
+ * Checks batches of texts in child JVM processes.
+ * <p>
+ * Each worker is a separate process running {@link JSHintWorker}, so the
+ * garbage produced by the checks does not burden the heap of the host
+ * process, and the workers run in parallel without sharing any Rhino scope.
+ * The positions are mapped and the problems created in the host, exactly as
+ * with {@link JSHint}. A worker whose heap retained after garbage collection
+ * exceeds the memory threshold is restarted after its current check.
+ * </p>
+ * <p>
+ * The workers are started on first use and stay alive until the pool is
+ * closed. A pool runs one batch at a time.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ *
+ * <pre>
+ * try (JSHintWorkerPool pool = new JSHintWorkerPool(4)) {
+ * 	pool.configure(configuration);
+ * 	pool.checkAll(texts, handler);
+ * }
+ * </pre>
+ */
+public class JSHintWorkerPool implements AutoCloseable {
+
+	/**
+	 * The default retained heap above which a worker is restarted: 256 MB.
+	 */
+	public static final long DEFAULT_MEMORY_THRESHOLD = 256L * 1024 * 1024;
+
+	/**
+	 * The default arguments of the worker JVMs.
+	 */
+	public static final List<String> DEFAULT_JVM_ARGUMENTS = Collections
+			.unmodifiableList(Arrays.asList("-Xmx512m", "-Xss4m"));
+
+	/**
+	 * Gets the class path containing this bundle and Rhino.
+	 *
+	 * @return the class path
+	 */
+	public static String getDefaultClassPath() {
+		final Set<String> paths = new LinkedHashSet<>();
+		for (final Class<?> clazz : new Class<?>[] { JSHintWorker.class,
+				Context.class }) {
+			final CodeSource source = clazz.getProtectionDomain()
+					.getCodeSource();
+			final URL location = source != null ? source.getLocation() : null;
+			if (location != null) {
+				try {
+					paths.add(new File(location.toURI()).getPath());
+				} catch (final URISyntaxException
+						| IllegalArgumentException e) {
+					paths.add(location.getPath());
+				}
+			}
+		}
+		if (paths.isEmpty()) {
+			return System.getProperty("java.class.path");
+		}
+		return String.join(File.pathSeparator, paths);
+	}
+
+	/**
+	 * The batch shared by the worker threads.
+	 */
+	private static final class Batch {
+
+		private final Iterator<Text> texts;
+
+		private final BatchProblemHandler handler;
+
+		/*
+		 * the lock guarding the iterator and the handler
+		 */
+		private final Lock lock = new ReentrantLock();
+
+		private int index;
+
+		private volatile boolean failed;
+
+		Batch(final Iterable<Text> texts, final BatchProblemHandler handler) {
+			this.texts = texts.iterator();
+			this.handler = handler;
+		}
+
+		/**
+		 * Checks the texts with the given checker until the batch is done.
+		 */
+		boolean run(final JSHint checker) {
+			boolean result = true;
+			final List<IProblem> problems = new ArrayList<>();
+			try {
+				for (;;) {
+					final int current;
+					final Text text;
+					lock.lock();
+					try {
+						if (failed || !texts.hasNext()) {
+							return result;
+						}
+						current = index++;
+						text = texts.next();
+					} finally {
+						lock.unlock();
+					}
+					problems.clear();
+					JSHIntException exception = null;
+					try {
+						result &= checker.check(text, problems::add);
+					} catch (final JSHIntException e) {
+						// a failed worker has been stopped, the next check
+						// starts a new one
+						result = false;
+						exception = e;
+					}
+					report(current, text, problems, exception);
+				}
+			} catch (final RuntimeException | Error e) {
+				failed = true;
+				throw e;
+			}
+		}
+
+		private void report(final int current, final Text text,
+				final List<IProblem> problems,
+				final JSHIntException exception) {
+			if (handler == null) {
+				if (exception != null) {
+					throw exception;
+				}
+				return;
+			}
+			// the handler is called by one thread at a time
+			lock.lock();
+			try {
+				for (final IProblem problem : problems) {
+					handler.handleProblem(current, text, problem);
+				}
+				if (exception instanceof JSHintBudgetException) {
+					handler.handleBudgetExceeded(current, text,
+							(JSHintBudgetException) exception);
+				} else if (exception != null) {
+					handler.handleCheckFailed(current, text, exception);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/*
+	 * the number of workers
+	 */
+	private final int size;
+
+	/*
+	 * the checkers using the worker engines, created on first use
+	 */
+	private final List<JSHint> checkers = new ArrayList<>();
+
+	private final List<WorkerEngine> engines = new ArrayList<>();
+
+	private File library;
+
+	private File cacheDirectory;
+
+	private ExecutionMode mode = ExecutionMode.COMPILED;
+
+	private String classPath;
+
+	private List<String> jvmArguments = DEFAULT_JVM_ARGUMENTS;
+
+	private long memoryThreshold = DEFAULT_MEMORY_THRESHOLD;
+
+	private JsonObject configuration = new JsonObject();
+
+	private CodeFilter codeFilter;
+
+	private long timeout;
+
+	/**
+	 * Creates a new pool.
+	 *
+	 * @param size
+	 *            the number of worker processes, must be greater than 0
+	 */
+	public JSHintWorkerPool(final int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException(
+					"The 'size' parameter must be greater than 0.");
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Checks all the given texts, distributed across the workers. All
+	 * problems will be reported to the given handler together with the index
+	 * of the text they belong to. The problems of a text are reported
+	 * together, but the texts are not reported in order. The handler is never
+	 * called concurrently. A text whose worker fails is reported to
+	 * {@link BatchProblemHandler#handleCheckFailed(int, Text, JSHIntException)}
+	 * and the batch continues with a new worker process.
+	 *
+	 * @param texts
+	 *            the texts to check, must not be null
+	 * @param handler
+	 *            the handler to report problems to or <code>null</code>
+	 * @return <code>true</code> if no problems have been found in any text,
+	 *         otherwise <code>false</code>
+	 * @throws JSHIntException
+	 *             if a worker fails and the handler is <code>null</code>.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting.
+	 * @see JSHint#checkAll(Iterable, BatchProblemHandler)
+	 */
+	public synchronized boolean checkAll(final Iterable<Text> texts,
+			final BatchProblemHandler handler) throws InterruptedException {
+		Objects.requireNonNull(texts, "The 'texts' parameter is null.");
+		ensureCheckers();
+		final Batch batch = new Batch(texts, handler);
+		final List<Callable<Boolean>> tasks = new ArrayList<>(size);
+		for (final JSHint checker : checkers) {
+			tasks.add(() -> batch.run(checker));
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(size,
+				runnable -> {
+					final Thread thread = new Thread(runnable,
+							"JSHint worker client");
+					thread.setDaemon(true);
+					return thread;
+				});
+		try {
+			boolean result = true;
+			for (final Future<Boolean> future : executor.invokeAll(tasks)) {
+				result &= future.get().booleanValue();
+			}
+			return result;
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new JSHIntException(cause.getMessage(), cause);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Stops all the worker processes.
+	 */
+	@Override
+	public synchronized void close() {
+		for (final WorkerEngine engine : engines) {
+			engine.close();
+		}
+		engines.clear();
+		checkers.clear();
+	}
+
+	/**
+	 * Sets the configuration to use for all subsequent checks.
+	 *
+	 * @param configuration
+	 *            the configuration to use, must not be null
+	 * @see JSHint#configure(JsonObject)
+	 */
+	public synchronized void configure(final JsonObject configuration) {
+		Objects.requireNonNull(configuration,
+				"The 'configuration' parameter is null.");
+		this.configuration = configuration;
+		codeFilter = null;
+		for (final JSHint checker : checkers) {
+			checker.configure(configuration);
+		}
+	}
+
+	/**
+	 * Gets the number of worker processes started so far, including the
+	 * restarted ones.
+	 *
+	 * @return the number of started processes
+	 */
+	public synchronized int getStartCount() {
+		int count = 0;
+		for (final WorkerEngine engine : engines) {
+			count += engine.getStarts();
+		}
+		return count;
+	}
+
+	/**
+	 * Sets the directory in which the workers store the classes compiled from
+	 * a custom library. The running workers are stopped.
+	 *
+	 * @param cacheDirectory
+	 *            the cache directory or <code>null</code> to compile the
+	 *            library in each worker
+	 * @see JSHintLibrary#setCacheDirectory(File)
+	 */
+	public synchronized void setCacheDirectory(final File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+		close();
+	}
+
+	/**
+	 * Sets the class path of the worker JVMs. It must contain this bundle and
+	 * Rhino. The running workers are stopped.
+	 *
+	 * @param classPath
+	 *            the class path or <code>null</code> to use the
+	 *            {@link #getDefaultClassPath() default}
+	 */
+	public synchronized void setClassPath(final String classPath) {
+		this.classPath = classPath;
+		close();
+	}
+
+	/**
+	 * Sets the filter of the reported problem codes.
+	 *
+	 * @param codeFilter
+	 *            the filter, must not be null
+	 * @see JSHint#setCodeFilter(CodeFilter)
+	 */
+	public synchronized void setCodeFilter(final CodeFilter codeFilter) {
+		Objects.requireNonNull(codeFilter,
+				"The 'codeFilter' parameter is null.");
+		this.codeFilter = codeFilter;
+		for (final JSHint checker : checkers) {
+			checker.setCodeFilter(codeFilter);
+		}
+	}
+
+	/**
+	 * Sets the arguments of the worker JVMs, e.g. the maximum heap size. The
+	 * running workers are stopped.
+	 *
+	 * @param jvmArguments
+	 *            the arguments, must not be null
+	 */
+	public synchronized void setJvmArguments(final List<String> jvmArguments) {
+		Objects.requireNonNull(jvmArguments,
+				"The 'jvmArguments' parameter is null.");
+		this.jvmArguments = new ArrayList<>(jvmArguments);
+		close();
+	}
+
+	/**
+	 * Sets the custom JSHint library file loaded by the workers. The running
+	 * workers are stopped.
+	 *
+	 * @param library
+	 *            the <code>jshint.js</code> file or <code>null</code> to use
+	 *            the built-in library
+	 */
+	public synchronized void setLibrary(final File library) {
+		this.library = library;
+		close();
+	}
+
+	/**
+	 * Sets the retained heap above which a worker is restarted. The running
+	 * workers are stopped.
+	 *
+	 * @param memoryThreshold
+	 *            the threshold in bytes or 0 to never restart the workers
+	 */
+	public synchronized void setMemoryThreshold(final long memoryThreshold) {
+		this.memoryThreshold = Math.max(0, memoryThreshold);
+		close();
+	}
+
+	/**
+	 * Sets the execution mode of the workers. The running workers are
+	 * stopped.
+	 *
+	 * @param mode
+	 *            the execution mode, must not be null
+	 */
+	public synchronized void setMode(final ExecutionMode mode) {
+		this.mode = Objects.requireNonNull(mode,
+				"The 'mode' parameter is null.");
+		close();
+	}
+
+	/**
+	 * Sets the maximum time a single check may take in a worker.
+	 *
+	 * @param timeout
+	 *            the time in milliseconds or 0 for no limit
+	 * @see JSHint#setTimeout(long)
+	 */
+	public synchronized void setTimeout(final long timeout) {
+		this.timeout = Math.max(0, timeout);
+		for (final JSHint checker : checkers) {
+			checker.setTimeout(timeout);
+		}
+	}
+
+	private List<String> createCommand() {
+		final List<String> command = new ArrayList<>();
+		command.add(new File(System.getProperty("java.home"), "bin/java")
+				.getPath());
+		command.addAll(jvmArguments);
+		command.add("-cp");
+		command.add(classPath != null ? classPath : getDefaultClassPath());
+		command.add(JSHintWorker.class.getName());
+		if (library != null) {
+			command.add(JSHintWorker.PARAM_LIBRARY);
+			command.add(library.getAbsolutePath());
+		}
+		command.add(JSHintWorker.PARAM_MODE);
+		command.add(mode.name().toLowerCase(Locale.ROOT));
+		if (cacheDirectory != null) {
+			command.add(JSHintWorker.PARAM_CACHE);
+			command.add(cacheDirectory.getAbsolutePath());
+		}
+		return command;
+	}
+
+	private void ensureCheckers() {
+		if (!checkers.isEmpty()) {
+			return;
+		}
+		final List<String> command = createCommand();
+		for (int i = 0; i < size; i++) {
+			final WorkerEngine engine = new WorkerEngine(command,
+					memoryThreshold);
+			final JSHint checker = new JSHint();
+			checker.load(engine);
+			checker.configure(configuration);
+			if (codeFilter != null) {
+				checker.setCodeFilter(codeFilter);
+			}
+			checker.setTimeout(timeout);
+			engines.add(engine);
+			checkers.add(checker);
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.NativeArray;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Undefined;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonObject.Member;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * Converts JSON values to Rhino objects, and back, without evaluating any
+ * JavaScript.
+ */
+final class JsonConverter {
+
+	/*
+	 * the sealed scope providing the Object and Array prototypes
+	 */
+	private static ScriptableObject standardScope;
+
+	/**
+	 * Converts the given JSON value to the corresponding Rhino value.
+	 *
+	 * @param context
+	 *            the current context
+	 * @param value
+	 *            the value to convert
+	 * @return a <code>NativeObject</code>, a <code>NativeArray</code>, a
+	 *         <code>String</code>, a <code>Double</code>, a
+	 *         <code>Boolean</code> or <code>null</code>
+	 */
+	static Object toRhino(final Context context, final JsonValue value) {
+		return toRhino(context, getStandardScope(context), value);
+	}
+
+	/**
+	 * Converts the given Rhino value to the corresponding JSON value.
+	 * Functions and undefined members are skipped, non-finite numbers are
+	 * converted to <code>null</code> and other values without a JSON
+	 * representation to strings.
+	 *
+	 * @param value
+	 *            the value to convert
+	 * @return the JSON value
+	 */
+	static JsonValue toJson(final Object value) {
+		if (value == null || value instanceof Undefined) {
+			return JsonValue.NULL;
+		}
+		if (value instanceof Boolean) {
+			return JsonValue.valueOf(((Boolean) value).booleanValue());
+		}
+		if (value instanceof Number) {
+			final double number = ((Number) value).doubleValue();
+			// same as JSON.stringify()
+			if (Double.isInfinite(number) || Double.isNaN(number)) {
+				return JsonValue.NULL;
+			}
+			return JsonValue.valueOf(number);
+		}
+		if (value instanceof NativeArray) {
+			final NativeArray array = (NativeArray) value;
+			final JsonArray result = new JsonArray();
+			final long length = array.getLength();
+			for (int i = 0; i < length; i++) {
+				final Object element = array.get(i, array);
+				if (!(element instanceof Function)) {
+					result.add(toJson(element));
+				}
+			}
+			return result;
+		}
+		if (value instanceof Scriptable && !(value instanceof Function)) {
+			final Scriptable object = (Scriptable) value;
+			final JsonObject result = new JsonObject();
+			for (final Object id : object.getIds()) {
+				final String name = id.toString();
+				final Object member = ScriptableObject.getProperty(object,
+						name);
+				if (!(member instanceof Function)
+						&& !(member instanceof Undefined)) {
+					result.add(name, toJson(member));
+				}
+			}
+			return result;
+		}
+		return JsonValue.valueOf(Context.toString(value));
+	}
+
+	private static synchronized Scriptable getStandardScope(
+			final Context context) {
+		if (standardScope == null) {
+			standardScope = context.initStandardObjects(null, true);
+			standardScope.sealObject();
+		}
+		return standardScope;
+	}
+
+	private static Object toRhino(final Context context,
+			final Scriptable scope, final JsonValue value) {
+		if (value.isObject()) {
+			final JsonObject object = value.asObject();
+			final Scriptable result = context.newObject(scope);
+			for (final Member member : object) {
+				final Object property = toRhino(context, scope,
+						member.getValue());
+				ScriptableObject.putProperty(result, member.getName(),
+						property);
+			}
+			return result;
+		}
+		if (value.isArray()) {
+			final JsonArray array = value.asArray();
+			final Object[] elements = new Object[array.size()];
+			for (int i = 0; i < elements.length; i++) {
+				elements[i] = toRhino(context, scope, array.get(i));
+			}
+			return context.newArray(scope, elements);
+		}
+		if (value.isString()) {
+			return value.asString();
+		}
+		if (value.isNumber()) {
+			return Double.valueOf(value.asDouble());
+		}
+		if (value.isBoolean()) {
+			return Boolean.valueOf(value.asBoolean());
+		}
+		return null;
+	}
+
+	/*
+	 * prevent instance creation
+	 */
+	private JsonConverter() {
+		throw new AssertionError("No JsonConverter instances is allowed"); //$NON-NLS-1$
+	}
+}
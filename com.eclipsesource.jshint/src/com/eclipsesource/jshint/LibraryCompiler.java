@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import org.mozilla.javascript.CompilerEnvirons;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.optimizer.ClassCompiler;
+
+/**
+ * Compiles the built-in JSHint library to Java classes at build time.
+ * <p>
+ * Unlike the Rhino <code>jsc</code> tool, the generated classes call the
+ * instruction observer, which the {@link CheckBudget} of a check relies on.
+ * A properties resource named after the main script class records this, see
+ * {@link #isObservingInstructions(ClassLoader, String)}. The process exits
+ * with the status 1 if the library cannot be compiled.
+ * </p>
+ * <p>
+ * Usage: <code>LibraryCompiler &lt;source&gt; &lt;output directory&gt;
+ * &lt;class name&gt;</code>
+ * </p>
+ */
+final class LibraryCompiler {
+
+	/*
+	 * the property recording that the classes call the instruction observer
+	 */
+	private static final String OBSERVE_INSTRUCTION_COUNT = "observeInstructionCount";
+
+	/**
+	 * Returns whether the given script classes have been generated by this
+	 * compiler, and thus call the instruction observer.
+	 *
+	 * @param classLoader
+	 *            the class loader of the classes
+	 * @param className
+	 *            the fully qualified name of the main script class
+	 * @return <code>true</code> if the classes call the instruction observer
+	 */
+	static boolean isObservingInstructions(final ClassLoader classLoader,
+			final String className) {
+		final Properties properties = new Properties();
+		try (InputStream stream = classLoader
+				.getResourceAsStream(getMarkerName(className))) {
+			if (stream == null) {
+				return false;
+			}
+			properties.load(stream);
+		} catch (final IOException | IllegalArgumentException e) {
+			return false;
+		}
+		return Boolean.parseBoolean(
+				properties.getProperty(OBSERVE_INSTRUCTION_COUNT));
+	}
+
+	/**
+	 * The entry point.
+	 *
+	 * @param args
+	 *            the source file, the output directory and the fully
+	 *            qualified name of the main script class
+	 */
+	public static void main(final String[] args) {
+		if (args.length != 3) {
+			System.err.println(
+					"Usage: LibraryCompiler <source> <output directory> <class name>");
+			System.exit(1);
+		}
+		try {
+			compile(new File(args[0]), new File(args[1]), args[2]);
+		} catch (IOException | RhinoException e) {
+			System.err.println("Failed to compile " + args[0] + ": " + e);
+			System.exit(1);
+		}
+	}
+
+	private static void compile(final File source, final File directory,
+			final String className) throws IOException {
+		final String code = new String(Files.readAllBytes(source.toPath()),
+				StandardCharsets.UTF_8);
+		final CompilerEnvirons environs = new CompilerEnvirons();
+		environs.setLanguageVersion(Context.VERSION_1_5);
+		environs.setOptimizationLevel(
+				ExecutionMode.COMPILED.getOptimizationLevel());
+		environs.setGenerateDebugInfo(false);
+		// required by the check budget
+		environs.setGenerateObserverCount(true);
+		final ClassCompiler compiler = new ClassCompiler(environs);
+		final Object[] classes = compiler.compileToClassFiles(code,
+				source.getName(), 1, className);
+		for (int i = 0; i < classes.length; i += 2) {
+			final String name = (String) classes[i];
+			final byte[] bytes = (byte[]) classes[i + 1];
+			final File file = new File(directory,
+					name.replace('.', File.separatorChar) + ".class");
+			Files.createDirectories(file.getParentFile().toPath());
+			try (OutputStream output = Files.newOutputStream(file.toPath())) {
+				output.write(bytes);
+			}
+		}
+		// written last, so failed builds leave no marker
+		final File marker = new File(directory, getMarkerName(className));
+		try (Writer writer = Files.newBufferedWriter(marker.toPath(),
+				StandardCharsets.ISO_8859_1)) {
+			writer.write("# generated by LibraryCompiler\n");
+			writer.write(OBSERVE_INSTRUCTION_COUNT + "=true\n");
+		}
+	}
+
+	private static String getMarkerName(final String className) {
+		return className.replace('.', '/') + ".properties";
+	}
+
+	/*
+	 * prevent instance creation
+	 */
+	private LibraryCompiler() {
+		throw new AssertionError("No LibraryCompiler instances is allowed"); //$NON-NLS-1$
+	}
+}
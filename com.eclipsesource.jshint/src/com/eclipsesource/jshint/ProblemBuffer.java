@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.util.Arrays;
+
+/**
+ * A growable buffer of problems, stored in parallel arrays.
+ * <p>
+ * The buffer can be reused for several checks: {@link #clear()} keeps the
+ * allocated arrays, so collecting the problems of the next check allocates
+ * nothing until the buffer must grow.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ *
+ * <pre>
+ * ProblemBuffer buffer = new ProblemBuffer();
+ * jshint.collect(text, buffer);
+ * for (int i = 0; i &lt; buffer.size(); i++) {
+ * 	report(buffer.getLine(i), buffer.getCharacter(i), buffer.getReason(i));
+ * }
+ * buffer.clear();
+ * </pre>
+ */
+public class ProblemBuffer implements ProblemSink {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int size;
+	private int[] lines;
+	private int[] characters;
+	private int[] codeIds;
+	private String[] reasons;
+
+	/**
+	 * Creates a new buffer with a default capacity.
+	 */
+	public ProblemBuffer() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new buffer with the given initial capacity.
+	 *
+	 * @param capacity
+	 *            the initial number of problems the buffer can hold
+	 */
+	public ProblemBuffer(final int capacity) {
+		final int length = Math.max(1, capacity);
+		lines = new int[length];
+		characters = new int[length];
+		codeIds = new int[length];
+		reasons = new String[length];
+	}
+
+	@Override
+	public void accept(final int line, final int character, final int codeId,
+			final String reason) {
+		if (size == lines.length) {
+			grow();
+		}
+		lines[size] = line;
+		characters[size] = character;
+		codeIds[size] = codeId;
+		reasons[size] = reason;
+		size++;
+	}
+
+	/**
+	 * Removes all the problems. The allocated arrays are kept.
+	 */
+	public void clear() {
+		// release the messages
+		Arrays.fill(reasons, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Gets the character offset of the given problem.
+	 *
+	 * @param index
+	 *            the problem index
+	 * @return the character offset within the line, beginning with 0, or -1
+	 */
+	public int getCharacter(final int index) {
+		checkIndex(index);
+		return characters[index];
+	}
+
+	/**
+	 * Gets the code identifier of the given problem.
+	 *
+	 * @param index
+	 *            the problem index
+	 * @return the code identifier
+	 * @see ProblemCodes
+	 */
+	public int getCodeId(final int index) {
+		checkIndex(index);
+		return codeIds[index];
+	}
+
+	/**
+	 * Gets the line of the given problem.
+	 *
+	 * @param index
+	 *            the problem index
+	 * @return the line number, beginning with 1, or -1
+	 */
+	public int getLine(final int index) {
+		checkIndex(index);
+		return lines[index];
+	}
+
+	/**
+	 * Gets the message of the given problem.
+	 *
+	 * @param index
+	 *            the problem index
+	 * @return the message
+	 */
+	public String getReason(final int index) {
+		checkIndex(index);
+		return reasons[index];
+	}
+
+	/**
+	 * Returns whether this buffer contains no problem.
+	 *
+	 * @return <code>true</code> if empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns whether the given problem is an error.
+	 *
+	 * @param index
+	 *            the problem index
+	 * @return <code>true</code> if an error
+	 */
+	public boolean isError(final int index) {
+		return ProblemCodes.isError(getCodeId(index));
+	}
+
+	/**
+	 * Gets the number of problems.
+	 *
+	 * @return the number of problems
+	 */
+	public int size() {
+		return size;
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(
+					String.format("The problem %s does not exist.", index));
+		}
+	}
+
+	private void grow() {
+		final int length = lines.length * 2;
+		lines = Arrays.copyOf(lines, length);
+		characters = Arrays.copyOf(characters, length);
+		codeIds = Arrays.copyOf(codeIds, length);
+		reasons = Arrays.copyOf(reasons, length);
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+/**
+ * Encodes the JSHint problem codes as integers.
+ * <p>
+ * JSHint codes are made of a type letter (<code>E</code> for errors,
+ * <code>W</code> for warnings and <code>I</code> for information) followed by
+ * three digits. The identifier of a code is the type multiplied by 1000 plus
+ * the number, e.g. <code>W033</code> is <code>2033</code>.
+ * </p>
+ */
+public final class ProblemCodes {
+
+	/**
+	 * The identifier of an empty or unknown code.
+	 */
+	public static final int UNKNOWN = 0;
+
+	/*
+	 * the code types, the index is the type number
+	 */
+	private static final String TYPES = " EWI";
+
+	/*
+	 * the numbers range for each type
+	 */
+	private static final int RANGE = 1000;
+
+	/*
+	 * the code strings, filled on demand
+	 */
+	private static final String[] CODES = new String[TYPES.length() * RANGE];
+
+	/**
+	 * Returns whether the given code identifier is an error.
+	 *
+	 * @param id
+	 *            the code identifier
+	 * @return <code>true</code> if the code type is <code>E</code>
+	 */
+	public static boolean isError(final int id) {
+		return id / RANGE == 1;
+	}
+
+	/**
+	 * Gets the code of the given identifier.
+	 *
+	 * @param id
+	 *            the code identifier
+	 * @return the code or an empty string if unknown. The same string instance
+	 *         is returned for the same identifier.
+	 */
+	public static String toCode(final int id) {
+		if (id < RANGE || id >= CODES.length) {
+			return "";
+		}
+		String code = CODES[id];
+		if (code == null) {
+			code = String.format("%c%03d", TYPES.charAt(id / RANGE),
+					id % RANGE);
+			CODES[id] = code;
+		}
+		return code;
+	}
+
+	/**
+	 * Gets the identifier of the given code.
+	 *
+	 * @param code
+	 *            the code, e.g. <code>W033</code>
+	 * @return the identifier or {@link #UNKNOWN} if the code is
+	 *         <code>null</code> or has not the JSHint format
+	 */
+	public static int toId(final String code) {
+		if (code == null || code.length() != 4) {
+			return UNKNOWN;
+		}
+		final int type = TYPES.indexOf(code.charAt(0));
+		if (type <= 0) {
+			return UNKNOWN;
+		}
+		int number = 0;
+		for (int i = 1; i < 4; i++) {
+			final char ch = code.charAt(i);
+			if (ch < '0' || ch > '9') {
+				return UNKNOWN;
+			}
+			number = number * 10 + ch - '0';
+		}
+		return type * RANGE + number;
+	}
+
+	/*
+	 * prevent instance creation
+	 */
+	private ProblemCodes() {
+		throw new AssertionError("No ProblemCodes instances is allowed"); //$NON-NLS-1$
+	}
+}
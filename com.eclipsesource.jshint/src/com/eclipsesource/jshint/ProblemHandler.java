@@ -16,6 +16,18 @@ package com.eclipsesource.jshint;
  */
 public interface ProblemHandler {
 
+	/**
+	 * Returns the maximum number of problems this handler is interested in.
+	 * When lower than the configured <code>maxerr</code> option, it is passed
+	 * to JSHint instead, so JSHint stops after this number of problems and
+	 * reports one more problem telling so.
+	 *
+	 * @return the maximum number of problems or 0 for no limit
+	 */
+	default int getMaxProblems() {
+		return 0;
+	}
+
 	/**
 	 * Handles a problem occurred during the code check.
 	 *
@@ -24,4 +36,14 @@ public interface ProblemHandler {
 	 */
 	void handleProblem(IProblem problem);
 
+	/**
+	 * Returns whether this handler does not want any more problems from the
+	 * current check. This method is called after each handled problem; once it
+	 * returns <code>true</code>, the remaining problems are not converted.
+	 *
+	 * @return <code>true</code> to stop the problems delivery
+	 */
+	default boolean isDone() {
+		return false;
+	}
 }
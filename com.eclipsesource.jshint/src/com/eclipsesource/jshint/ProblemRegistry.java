@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the canonical problem codes and messages.
+ * <p>
+ * The strings read from JSHint are new instances for every problem. Because
+ * JSHint reports a small set of codes and the same messages again and again,
+ * the registry returns one shared instance for equal strings, so that the
+ * memory used by a large set of problems depends on the number of distinct
+ * messages and not on the number of problems.
+ * </p>
+ * <p>
+ * The messages table is bounded: once {@link #MAX_MESSAGES} distinct messages
+ * are registered, new messages are returned as given.
+ * </p>
+ */
+public final class ProblemRegistry {
+
+	/**
+	 * The maximum number of distinct messages registered.
+	 */
+	public static final int MAX_MESSAGES = 10_000;
+
+	/*
+	 * the codes that are not in the JSHint format
+	 */
+	private static final Map<String, String> CODES = new ConcurrentHashMap<>();
+
+	/*
+	 * the registered messages
+	 */
+	private static final Map<String, String> MESSAGES = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a problem with the canonical code and message.
+	 *
+	 * @param line
+	 *            the line number, beginning with 1, or -1
+	 * @param character
+	 *            the character offset within the line, beginning with 0, or
+	 *            -1
+	 * @param message
+	 *            the problem message
+	 * @param code
+	 *            the problem code
+	 * @return the problem
+	 */
+	public static Problem createProblem(final int line, final int character,
+			final String message, final String code) {
+		return new Problem(line, character, internMessage(message),
+				internCode(code));
+	}
+
+	/**
+	 * Gets the canonical instance of the given code.
+	 *
+	 * @param code
+	 *            the code, e.g. <code>W033</code>
+	 * @return the canonical code or <code>null</code> if the given code is
+	 *         <code>null</code>
+	 */
+	public static String internCode(final String code) {
+		if (code == null || code.isEmpty()) {
+			return code == null ? null : "";
+		}
+		final int id = ProblemCodes.toId(code);
+		if (id != ProblemCodes.UNKNOWN) {
+			return ProblemCodes.toCode(id);
+		}
+		// unusual codes are rare, don't bound them
+		final String previous = CODES.putIfAbsent(code, code);
+		return previous != null ? previous : code;
+	}
+
+	/**
+	 * Gets the canonical instance of the given message.
+	 *
+	 * @param message
+	 *            the message
+	 * @return the canonical message, the given message if the registry is
+	 *         full, or <code>null</code> if the given message is
+	 *         <code>null</code>
+	 */
+	public static String internMessage(final String message) {
+		if (message == null) {
+			return null;
+		}
+		final String existing = MESSAGES.get(message);
+		if (existing != null) {
+			return existing;
+		}
+		if (MESSAGES.size() >= MAX_MESSAGES) {
+			return message;
+		}
+		final String previous = MESSAGES.putIfAbsent(message, message);
+		return previous != null ? previous : message;
+	}
+
+	/**
+	 * Gets the number of registered messages.
+	 *
+	 * @return the number of messages
+	 */
+	public static int messageCount() {
+		return MESSAGES.size();
+	}
+
+	/*
+	 * prevent instance creation
+	 */
+	private ProblemRegistry() {
+		throw new AssertionError("No ProblemRegistry instances is allowed"); //$NON-NLS-1$
+	}
+}
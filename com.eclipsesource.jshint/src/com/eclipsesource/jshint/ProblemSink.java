@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+/**
+ * Receives the problems found by JSHint as primitive values, without any
+ * problem object.
+ *
+ * @see JSHint#collect(Text, ProblemSink)
+ * @see ProblemHandler
+ */
+@FunctionalInterface
+public interface ProblemSink {
+
+	/**
+	 * Accepts a problem occurred during the code check.
+	 *
+	 * @param line
+	 *            the line number, beginning with 1, or -1 if unknown
+	 * @param character
+	 *            the character offset within the line, beginning with 0, or
+	 *            -1 if unknown
+	 * @param codeId
+	 *            the code identifier as defined by {@link ProblemCodes}
+	 * @param reason
+	 *            the problem message
+	 */
+	void accept(int line, int character, int codeId, String reason);
+
+	/**
+	 * Returns the maximum number of problems this sink is interested in.
+	 *
+	 * @return the maximum number of problems or 0 for no limit
+	 * @see ProblemHandler#getMaxProblems()
+	 */
+	default int getMaxProblems() {
+		return 0;
+	}
+
+	/**
+	 * Returns whether this sink does not want any more problems from the
+	 * current check.
+	 *
+	 * @return <code>true</code> to stop the problems delivery
+	 * @see ProblemHandler#isDone()
+	 */
+	default boolean isDone() {
+		return false;
+	}
+}
@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+/**
+ * Problem handlers also implementing this interface receive the JSHint data
+ * report of each checked text.
+ *
+ * @see JSHint#check(Text, ProblemHandler)
+ */
+public interface ReportHandler {
+
+	/**
+	 * Handles the data report of a check. This method is called after all the
+	 * problems of the check have been reported. The report is only valid
+	 * during this call.
+	 *
+	 * @param report
+	 *            the report
+	 */
+	void handleReport(DataReport report);
+}
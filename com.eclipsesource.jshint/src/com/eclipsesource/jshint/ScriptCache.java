@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Script;
+
+/**
+ * Process-wide cache of compiled JSHint library scripts, keyed by a hash of
+ * the library source and the optimization level. Repeated loads of the same
+ * library only execute the already compiled script. When a cache directory is
+ * set, the classes generated for compiled scripts are also stored on disk, so
+ * subsequent processes skip the compilation.
+ */
+final class ScriptCache {
+
+	/*
+	 * the maximum number of cached scripts
+	 */
+	private static final int MAX_ENTRIES = 8;
+
+	/*
+	 * the name of the compiled script
+	 */
+	private static final String SOURCE_NAME = "jshint-library";
+
+	/*
+	 * the cached scripts, in access order
+	 */
+	private static final Map<String, Script> SCRIPTS = new LinkedHashMap<String, Script>(
+			16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				final Map.Entry<String, Script> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/*
+	 * the persistent cache or null if none
+	 */
+	private static volatile ClassFileCache classFileCache;
+
+	/**
+	 * Gets the compiled script for the given source, compiling it if not yet
+	 * cached.
+	 *
+	 * @param context
+	 *            the current context, its optimization level is used to
+	 *            compile the script
+	 * @param source
+	 *            the library source
+	 * @param hash
+	 *            the hash of the source as returned by {@link #hash(String)}
+	 * @return the compiled script
+	 */
+	static Script getScript(final Context context, final String source,
+			final String hash) {
+		final String key = hash + '/' + context.getOptimizationLevel();
+		synchronized (SCRIPTS) {
+			final Script script = SCRIPTS.get(key);
+			if (script != null) {
+				return script;
+			}
+		}
+
+		// compile outside of the lock, this can take a few seconds
+		final Script script = compile(context, source, hash);
+		synchronized (SCRIPTS) {
+			final Script existing = SCRIPTS.putIfAbsent(key, script);
+			return existing != null ? existing : script;
+		}
+	}
+
+	/**
+	 * Computes the SHA-256 hash of the given source.
+	 *
+	 * @param source
+	 *            the source to hash
+	 * @return the hash as hexadecimal string
+	 */
+	static String hash(final String source) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			final byte[] bytes = digest
+					.digest(source.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder builder = new StringBuilder(bytes.length * 2);
+			for (final byte b : bytes) {
+				builder.append(String.format("%02x", b & 0xFF));
+			}
+			return builder.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			// SHA-256 is required on every Java platform
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns whether the classes compiled from the given source are stored in
+	 * the persistent cache.
+	 *
+	 * @param hash
+	 *            the hash of the source as returned by {@link #hash(String)}
+	 * @return <code>true</code> if stored, <code>false</code> if not or if no
+	 *         cache directory is set
+	 */
+	static boolean isStored(final String hash) {
+		final ClassFileCache cache = classFileCache;
+		if (cache == null) {
+			return false;
+		}
+		final Context context = JSHintContextFactory.getDefault()
+				.enterThreadContext();
+		try {
+			return cache.contains(context, hash);
+		} finally {
+			Context.exit();
+		}
+	}
+
+	/**
+	 * Sets the directory of the persistent cache.
+	 *
+	 * @param directory
+	 *            the directory or <code>null</code> to disable the persistent
+	 *            cache
+	 */
+	static void setDirectory(final File directory) {
+		classFileCache = directory != null ? new ClassFileCache(directory)
+				: null;
+	}
+
+	private static Script compile(final Context context, final String source,
+			final String hash) {
+		final ClassFileCache cache = classFileCache;
+		// interpreted scripts have no classes to store
+		if (cache != null && context.getOptimizationLevel() >= 0) {
+			return cache.getScript(context, source, hash, SOURCE_NAME);
+		}
+		return context.compileString(source, SOURCE_NAME, 1, null);
+	}
+
+	/*
+	 * prevent instance creation
+	 */
+	private ScriptCache() {
+		throw new AssertionError("No ScriptCache instances is allowed"); //$NON-NLS-1$
+	}
+}
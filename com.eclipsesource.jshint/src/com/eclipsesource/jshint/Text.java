@@ -26,9 +26,15 @@ public class Text {
 
 	private static final int CARRIAGE_RETURN = '\r';
 
+	private static final int TAB = '\t';
+
 	private String content;
 	private int lineCount = 1;
 	private int[] lineOffsets = new int[200];
+	// index in tabOffsets of the first tab of each line
+	private int[] lineTabs = new int[200];
+	private int tabCount;
+	private int[] tabOffsets = new int[0];
 
 	public Text(final Reader reader) throws IOException {
 		Objects.requireNonNull(reader, "The 'reader' parameter is null.");
@@ -44,6 +50,68 @@ public class Text {
 		}
 	}
 
+	/**
+	 * Converts a visual column of the given line to a character index within
+	 * the line. Visual columns start at 1 and count every tab character as
+	 * <code>tabWidth</code> columns. Example with a tab width of 4:
+	 *
+	 * <pre>
+	 *          "a\tb\tc"
+	 *
+	 * index:  | 0 | 1 | 2 | 3 | 4 | 5 | 6 | 7 | 8 | 9 | 10|
+	 * char:   | a | » | b | » | c |
+	 * visual:     | a | »             | b | »             | c |
+	 * </pre>
+	 * <p>
+	 * The tabs of each line are indexed while reading, so the conversion takes
+	 * a binary search over the tabs of the line. A column inside the expansion
+	 * of a tab is mapped to the character following the tab.
+	 * </p>
+	 *
+	 * @param line
+	 *            the zero-relative line index.
+	 * @param column
+	 *            the one-relative visual column.
+	 * @param tabWidth
+	 *            the number of columns of a tab character, not negative.
+	 * @return the zero-relative character index within the line, at most the
+	 *         index of the last character of the text.
+	 * @throws IndexOutOfBoundsException
+	 *             if the line is smaller than 0 or greater or equal to the line
+	 *             count.
+	 */
+	public int getCharIndex(final int line, final int column,
+			final int tabWidth) {
+		checkLineIndex(line);
+		final int offset = lineOffsets[line];
+		final int firstTab = lineTabs[line];
+		final int lastTab = line + 1 == lineCount ? tabCount
+				: lineTabs[line + 1];
+		final int extra = tabWidth - 1;
+
+		// find the number of tabs located before the column
+		int low = firstTab;
+		int high = lastTab;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			final int tabColumn = 1 + tabOffsets[middle] - offset
+					+ extra * (middle - firstTab);
+			if (tabColumn < column) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		final int tabs = low - firstTab;
+		int index = column - 1 - extra * tabs;
+		if (tabs > 0) {
+			// inside the expansion of the previous tab
+			index = Math.max(index, tabOffsets[low - 1] - offset + 1);
+		}
+		return Math.max(0,
+				Math.min(index, content.length() - offset - 1));
+	}
+
 	public String getContent() {
 		return content;
 	}
@@ -88,10 +156,20 @@ public class Text {
 		final int len = lineOffsets.length;
 		if (lineCount >= len) {
 			lineOffsets = Arrays.copyOf(lineOffsets, len + 100);
+			lineTabs = Arrays.copyOf(lineTabs, len + 100);
 		}
+		lineTabs[lineCount] = tabCount;
 		lineOffsets[lineCount++] = offset;
 	}
 
+	private void addTabOffset(final int offset) {
+		final int len = tabOffsets.length;
+		if (tabCount >= len) {
+			tabOffsets = Arrays.copyOf(tabOffsets, Math.max(64, len * 2));
+		}
+		tabOffsets[tabCount++] = offset;
+	}
+
 	private void checkLineIndex(final int line) {
 		if (line < 0 || line >= lineCount) {
 			throw new IndexOutOfBoundsException(
@@ -113,6 +191,9 @@ public class Text {
 				// handle Mac (CR)
 				addLineOffset(buffer.length());
 			}
+			if (ch == TAB) {
+				addTabOffset(buffer.length());
+			}
 			buffer.append((char) ch);
 			previous = ch;
 		}
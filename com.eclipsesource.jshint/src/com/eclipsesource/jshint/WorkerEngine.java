@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2021 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Laurent Muller - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * The engine running the checks in a child process, see
+ * {@link JSHintWorker} for the protocol.
+ * <p>
+ * The process is started on the first session and restarted, with the last
+ * configuration, when it has died or when the heap it retains exceeds the
+ * memory threshold. The restart happens when the session is closed, so the
+ * results of a check stay available until then.
+ * </p>
+ * <p>
+ * A process not responding within the check timeout plus a margin, or within
+ * a default deadline for checks without timeout, is killed, the request
+ * fails and the next session starts a new process.
+ * </p>
+ */
+final class WorkerEngine implements JSHintEngine, AutoCloseable {
+
+	/*
+	 * the time in milliseconds a worker may take to respond, in addition to
+	 * the check timeout
+	 */
+	private static final long RESPONSE_MARGIN = 30_000;
+
+	/*
+	 * the time in milliseconds a worker may take to respond to a check
+	 * without timeout
+	 */
+	private static final long DEFAULT_CHECK_DEADLINE = 10 * 60_000;
+
+	/*
+	 * the scheduler killing the unresponsive worker processes
+	 */
+	private static final ScheduledExecutorService WATCHDOG = Executors
+			.newSingleThreadScheduledExecutor(runnable -> {
+				final Thread thread = new Thread(runnable,
+						"JSHint worker watchdog");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	/**
+	 * The session sending the requests to the worker process.
+	 */
+	private final class WorkerSession implements Session {
+
+		/*
+		 * the errors of the last check or null
+		 */
+		private JsonArray errors;
+
+		@Override
+		public boolean check(final String code, final int maxErrors,
+				final long timeout, final long maxInstructions) {
+			errors = null;
+			final JsonObject response = request(new JsonObject() //
+					.add("op", "check") //
+					.add("code", code) //
+					.add("maxErrors", maxErrors) //
+					.add("timeout", timeout) //
+					.add("maxInstructions", maxInstructions),
+					timeout > 0 ? timeout + RESPONSE_MARGIN
+							: DEFAULT_CHECK_DEADLINE);
+			final JsonValue heap = response.get("heap");
+			if (memoryThreshold > 0 && heap != null
+					&& heap.asLong() > memoryThreshold) {
+				restart = true;
+			}
+			errors = response.get("errors").asArray();
+			return response.get("result").asBoolean();
+		}
+
+		@Override
+		public void close() {
+			if (restart) {
+				stop();
+			}
+		}
+
+		@Override
+		public void extract(final ErrorHandler handler,
+				final CodeFilter filter) {
+			Objects.requireNonNull(handler, "The 'handler' parameter is null.");
+			Objects.requireNonNull(filter, "The 'filter' parameter is null.");
+			if (errors == null) {
+				return;
+			}
+			for (final JsonValue value : errors) {
+				final JsonArray error = value.asArray();
+				final String code = error.get(2).asString();
+				if (filter.accept(code) && !handler.handleError(
+						error.get(0).asInt(), error.get(1).asInt(), code,
+						error.get(3).asString())) {
+					return;
+				}
+			}
+		}
+
+		@Override
+		public JsonObject getData() {
+			final JsonObject response = request(
+					new JsonObject().add("op", "data"), RESPONSE_MARGIN);
+			return response.get("data").asObject();
+		}
+
+		@Override
+		public void reset() {
+			errors = null;
+			// a failed process has been stopped, with all its state
+			if (process != null) {
+				request(new JsonObject().add("op", "reset"), RESPONSE_MARGIN);
+			}
+		}
+	}
+
+	/*
+	 * the command starting the worker process
+	 */
+	private final List<String> command;
+
+	/*
+	 * the retained heap, in bytes, above which the process is restarted or 0
+	 */
+	private final long memoryThreshold;
+
+	/*
+	 * the last configuration or null if not configured
+	 */
+	private JsonObject configuration;
+
+	private Process process;
+
+	private BufferedReader reader;
+
+	private Writer writer;
+
+	/*
+	 * true to restart the process when the current session is closed
+	 */
+	private boolean restart;
+
+	/*
+	 * the number of started processes
+	 */
+	private int starts;
+
+	/**
+	 * Creates a new engine.
+	 *
+	 * @param command
+	 *            the command starting the worker process
+	 * @param memoryThreshold
+	 *            the retained heap, in bytes, above which the process is
+	 *            restarted or 0 to never restart it
+	 */
+	WorkerEngine(final List<String> command, final long memoryThreshold) {
+		this.command = new ArrayList<>(command);
+		this.memoryThreshold = memoryThreshold;
+	}
+
+	/**
+	 * Stops the worker process.
+	 */
+	@Override
+	public void close() {
+		stop();
+	}
+
+	@Override
+	public void configure(final JsonObject configuration) {
+		Objects.requireNonNull(configuration,
+				"The 'configuration' parameter is null.");
+		this.configuration = configuration;
+		if (process != null) {
+			request(createConfigureRequest(), RESPONSE_MARGIN);
+		}
+	}
+
+	/**
+	 * Gets the number of times the worker process has been started.
+	 *
+	 * @return the number of starts
+	 */
+	int getStarts() {
+		return starts;
+	}
+
+	@Override
+	public Session open() {
+		if (process != null && !process.isAlive()) {
+			stop();
+		}
+		if (process == null) {
+			start();
+		}
+		return new WorkerSession();
+	}
+
+	private JsonObject createConfigureRequest() {
+		return new JsonObject().add("op", "configure").add("configuration",
+				configuration);
+	}
+
+	/**
+	 * Sends a request and waits for the response.
+	 *
+	 * @param request
+	 *            the request
+	 * @param responseTimeout
+	 *            the time in milliseconds after which the process is killed
+	 * @return the successful response
+	 */
+	private JsonObject request(final JsonObject request,
+			final long responseTimeout) {
+		final Process current = process;
+		final ScheduledFuture<?> watchdog = WATCHDOG.schedule(
+				current::destroyForcibly, responseTimeout,
+				TimeUnit.MILLISECONDS);
+		String line = null;
+		IOException failure = null;
+		try {
+			request.writeTo(writer);
+			writer.write('\n');
+			writer.flush();
+			line = reader.readLine();
+		} catch (final IOException e) {
+			failure = e;
+		}
+		if (!watchdog.cancel(false)) {
+			stop();
+			throw new JSHIntException(String.format(
+					"The JSHint worker did not respond within %d ms.",
+					responseTimeout), null);
+		}
+		if (failure != null) {
+			stop();
+			throw new JSHIntException("The JSHint worker failed.", failure);
+		}
+		if (line == null) {
+			stop();
+			throw new JSHIntException("The JSHint worker has stopped.", null);
+		}
+		final JsonObject response;
+		try {
+			response = JsonObject.readFrom(line);
+		} catch (final IOException | RuntimeException e) {
+			stop();
+			throw new JSHIntException("Invalid JSHint worker response.", e);
+		}
+		if (!response.get("ok").asBoolean()) {
+			final String message = response.get("error").asString();
+			if (response.get("budget").asBoolean()) {
+				throw new JSHintBudgetException(message);
+			}
+			throw new JSHIntException(message, null);
+		}
+		return response;
+	}
+
+	private void start() {
+		final ProcessBuilder builder = new ProcessBuilder(command)
+				.redirectError(ProcessBuilder.Redirect.INHERIT);
+		try {
+			process = builder.start();
+		} catch (final IOException e) {
+			throw new JSHIntException("Cannot start the JSHint worker.", e);
+		}
+		starts++;
+		reader = new BufferedReader(new InputStreamReader(
+				process.getInputStream(), StandardCharsets.UTF_8));
+		writer = new BufferedWriter(new OutputStreamWriter(
+				process.getOutputStream(), StandardCharsets.UTF_8));
+		if (configuration != null) {
+			request(createConfigureRequest(), RESPONSE_MARGIN);
+		}
+	}
+
+	private void stop() {
+		restart = false;
+		if (process == null) {
+			return;
+		}
+		try {
+			// the worker exits when its input is closed
+			writer.close();
+			reader.close();
+		} catch (final IOException e) {
+			// ignore, the process is destroyed
+		}
+		process.destroy();
+		process = null;
+		reader = null;
+		writer = null;
+	}
+}
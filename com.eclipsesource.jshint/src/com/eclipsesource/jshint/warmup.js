@@ -0,0 +1,80 @@
+/*
+ * Code checked by JSHint.warmUp() to exercise the common paths of the
+ * library. It intentionally contains a few problems.
+ */
+/* global define */
+"use strict";
+
+var counter = 0, unused;
+
+function Shape(name, sides) {
+	this.name = name;
+	this.sides = sides || [];
+}
+
+Shape.prototype.perimeter = function () {
+	var total = 0;
+	for (var i = 0; i < this.sides.length; i++) {
+		total += this.sides[i];
+	}
+	return total
+};
+
+Shape.prototype.describe = function (verbose) {
+	if (verbose == true) {
+		return "Shape " + this.name + " with " + this.sides.length + " sides";
+	} else if (!verbose) {
+		return this.name;
+	}
+	switch (typeof verbose) {
+	case "string":
+		return verbose + ": " + this.name;
+	case "number":
+		counter++;
+		break;
+	default:
+		return undefinedValue;
+	}
+};
+
+class Square extends Shape {
+	constructor(size) {
+		super("square", [size, size, size, size]);
+		this.size = size;
+	}
+
+	get area() {
+		return this.size ** 2;
+	}
+
+	static of(...sizes) {
+		return sizes.map((size) => new Square(size));
+	}
+}
+
+const squares = Square.of(1, 2, 3);
+let areas = squares.filter(({ area }) => area > 1).map(s => `${s.name}=${s.area}`);
+
+async function load(url, { retries = 3 } = {}) {
+	for (let attempt = 0; attempt < retries; attempt++) {
+		try {
+			const response = await fetch(url);
+			return await response.json();
+		} catch (e) {
+			console.log(e.message, attempt);
+		}
+	}
+	throw new Error("Unable to load " + url);
+}
+
+var registry = {
+	"shapes": squares,
+	areas: areas,
+	load: load,
+	"with-dash": /[a-z]+\d*$/gi.test("abc1"),
+	nested: { deep: [1, 2.5, -3e2, 0x1F, null, true, void 0] }
+};
+
+define("registry", [], function () {
+	return registry;
+});